@@ -0,0 +1,38 @@
+package bgibbons.game.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the rendering benchmarks with the allocation profiler and writes the results to a JSON file.
+ * Any JMH command line options are passed through, e.g. a benchmark name pattern to run only some of them.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * Main method to run the benchmarks.
+	 * @param args 	JMH command line options.
+	 * @throws RunnerException 				If a benchmark fails.
+	 * @throws CommandLineOptionException 	If the options can not be parsed.
+	 */
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		Options options = new OptionsBuilder()
+				.parent(cmd)
+				.include(cmd.getIncludes().isEmpty() ? "bgibbons.game.bench" : cmd.getIncludes().get(0))
+				.addProfiler(GCProfiler.class)	// Reports gc.alloc.rate.norm, the bytes allocated per operation
+				.jvmArgsAppend("-Djava.awt.headless=true")
+				.resultFormat(ResultFormatType.JSON)
+				.result(cmd.getResult().orElse("bench-results.json"))
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,73 @@
+package bgibbons.game.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bgibbons.game.level.CaveAutomaton;
+
+/**
+ * Benchmarks stepping the cave automaton dungeons are generated with, on a dungeon sized map and on very wide rows.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CaveAutomatonBenchmark {
+
+	@Param({"64", "10000"})
+	public int width;
+
+	@Param({"64"})
+	public int height;
+
+	private CaveAutomaton cave;
+	private Random rand;
+
+	/**
+	 * Makes the map.
+	 */
+	@Setup
+	public void setup() {
+		cave = new CaveAutomaton(width, height);
+		rand = new Random(448);
+	}
+
+	/**
+	 * Seeds the map at random and steps it twice, the way a dungeon is generated.
+	 * @return The map, so the steps are not optimized away.
+	 */
+	@Benchmark
+	public CaveAutomaton generate() {
+		cave.clear();
+		cave.randomize(rand, 40, 2, 2, width - 2, height - 2);
+		cave.step();
+		cave.step();
+		return cave;
+	}
+
+	/**
+	 * Steps the map once.
+	 * @return The map, so the step is not optimized away.
+	 */
+	@Benchmark
+	public CaveAutomaton step() {
+		cave.step();
+		return cave;
+	}
+}
@@ -0,0 +1,67 @@
+package bgibbons.game.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bgibbons.game.entities.EnemyStore;
+import bgibbons.game.level.Level;
+import bgibbons.game.level.tiles.Tile;
+
+/**
+ * Benchmarks walking a large population of enemies held in an enemy store.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemyStoreBenchmark {
+
+	@Param({"10000", "100000"})
+	public int enemies;
+
+	private EnemyStore store;
+
+	/**
+	 * Loads the main level and spreads orcs and vampires over its walkable tiles.
+	 */
+	@Setup
+	public void setup() {
+		Level level = new Level("/res/levels/main_level.png", null, true);
+		store = new EnemyStore(level, 448);
+		Random rand = new Random(448);
+		while (store.size() < enemies) {
+			int x = rand.nextInt(level.width);
+			int y = rand.nextInt(level.height);
+			Tile tile = level.getTile(x, y);
+			if (!tile.isSolid() && tile != Tile.VOID) {
+				store.add(store.size() % 2 == 0 ? EnemyStore.ORC : EnemyStore.VAMPIRE, x << 3, y << 3, 1, 12);
+			}
+		}
+	}
+
+	/**
+	 * Walks every enemy in the store one step.
+	 * @return The store, so the walk is not optimized away.
+	 */
+	@Benchmark
+	public EnemyStore tickAll() {
+		store.tickAll();
+		return store;
+	}
+}
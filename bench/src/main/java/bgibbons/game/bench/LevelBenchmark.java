@@ -0,0 +1,99 @@
+package bgibbons.game.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bgibbons.game.Game;
+import bgibbons.game.entities.Orc;
+import bgibbons.game.graphics.Colors;
+import bgibbons.game.graphics.Screen;
+import bgibbons.game.graphics.SpriteSheet;
+import bgibbons.game.level.Level;
+import bgibbons.game.level.tiles.Tile;
+
+/**
+ * Benchmarks the tile and entity passes of rendering the main level.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmark {
+
+	@Param({"50", "150", "500"})
+	public int orcs;
+
+	private Screen screen;
+	private Level level;
+	private int frame;	// Frame of the camera walk across the level
+
+	/**
+	 * Loads the main level and spreads the orcs over its walkable tiles.
+	 */
+	@Setup
+	public void setup() {
+		screen = new Screen(Game.WIDTH, Game.HEIGHT, new SpriteSheet("/res/sprite_sheet.png"), Colors.getPalette());
+		level = new Level("/res/levels/main_level.png", "/res/entities/main_level.png", true);
+		Random rand = new Random(448);
+		int added = 0;
+		while (added < orcs) {
+			int x = rand.nextInt(level.width);
+			int y = rand.nextInt(level.height);
+			Tile tile = level.getTile(x, y);
+			if (!tile.isSolid() && tile != Tile.VOID) {
+				level.addEntity(new Orc(level, x << 3, y << 3));
+				added++;
+			}
+		}
+		frame = 0;
+	}
+
+	/**
+	 * Returns the camera x offset for the current frame, walking right along the level and back.
+	 * @return The x offset of the camera.
+	 */
+	private int cameraX() {
+		int span = (level.width << 3) - screen.width;
+		int step = frame % (2 * span);
+		return step < span ? step : 2 * span - step;
+	}
+
+	/**
+	 * Renders the tiles under a camera walking across the level one pixel per frame.
+	 * @return The screen, so the writes are not optimized away.
+	 */
+	@Benchmark
+	public Screen renderTiles() {
+		frame++;
+		level.renderTiles(screen, cameraX(), (level.height << 2) - screen.height/2 + (frame >> 4) % 16);
+		return screen;
+	}
+
+	/**
+	 * Renders every entity on the level under the walking camera.
+	 * @return The screen, so the writes are not optimized away.
+	 */
+	@Benchmark
+	public Screen renderEntities() {
+		frame++;
+		screen.setOffset(cameraX(), (level.height << 2) - screen.height/2);
+		level.renderEntities(screen);
+		return screen;
+	}
+}
@@ -0,0 +1,118 @@
+package bgibbons.game.bench;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bgibbons.game.Game;
+import bgibbons.game.graphics.Colors;
+import bgibbons.game.graphics.Screen;
+import bgibbons.game.graphics.SpriteSheet;
+
+/**
+ * Benchmarks getting a finished frame from the screen onto a scaled back buffer.
+ * The legacy benchmark keeps the per-pixel palette conversion Game.render used before the screen image was palette indexed.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PresentBenchmark {
+
+	private Screen screen;
+	private int[] colors;
+	private BufferedImage rgbImage;	// Image the legacy loop converted the palette indices into
+	private int[] rgbPixels;
+	private BufferedImage backBuffer;	// Stands in for the BufferStrategy's buffer at the window's scale
+	private Graphics2D g;
+	private int frame;
+
+	/**
+	 * Creates the screen, the legacy image and the back buffer, and draws a frame to present.
+	 */
+	@Setup
+	public void setup() {
+		colors = Colors.getPalette();
+		screen = new Screen(Game.WIDTH, Game.HEIGHT, new SpriteSheet("/res/sprite_sheet.png"), colors);
+		rgbImage = new BufferedImage(Game.WIDTH, Game.HEIGHT, BufferedImage.TYPE_INT_RGB);
+		rgbPixels = ((DataBufferInt) rgbImage.getRaster().getDataBuffer()).getData();
+		backBuffer = new BufferedImage(Game.WIDTH*Game.SCALE, Game.HEIGHT*Game.SCALE, BufferedImage.TYPE_INT_RGB);
+		g = backBuffer.createGraphics();
+		for (int y=0; y<screen.height; y+=8) {
+			for (int x=0; x<screen.width; x+=8) {
+				screen.render(x, y, (x/8 % 8) + 20*32, Colors.get(000, 120, 232, 555), 0x00, 1);
+			}
+		}
+		frame = 0;
+	}
+
+	/**
+	 * Releases the back buffer's graphics context.
+	 */
+	@TearDown
+	public void tearDown() {
+		g.dispose();
+	}
+
+	/**
+	 * Converts every pixel through the palette into an RGB image and draws all of it, as Game.render used to.
+	 * @return The back buffer, so the draw is not optimized away.
+	 */
+	@Benchmark
+	public BufferedImage legacyPaletteConversion() {
+		for (int y=0; y<screen.height; y++) {
+			for (int x=0; x<screen.width; x++) {
+				int colorCode = screen.pixels[x+y*screen.width] & 255;
+				if (colorCode < 255) rgbPixels[x+y*Game.WIDTH] = colors[colorCode];
+			}
+		}
+		g.drawImage(rgbImage, 0, 0, backBuffer.getWidth(), backBuffer.getHeight(), null);
+		return backBuffer;
+	}
+
+	/**
+	 * Draws all of the palette indexed screen image.
+	 * @return The back buffer, so the draw is not optimized away.
+	 */
+	@Benchmark
+	public BufferedImage indexedFullFrame() {
+		g.drawImage(screen.image, 0, 0, backBuffer.getWidth(), backBuffer.getHeight(), null);
+		return backBuffer;
+	}
+
+	/**
+	 * Changes one sprite and draws only the dirty regions of the palette indexed screen image, as Game.render does now.
+	 * @return The back buffer, so the draw is not optimized away.
+	 */
+	@Benchmark
+	public BufferedImage indexedDirtyRects() {
+		frame++;
+		screen.render((frame & 15) << 3, 64, 20*32 + (frame & 7), Colors.get(000, 120, 232, 555), 0x00, 1);
+		ArrayList<Rectangle> dirty = screen.getDirtyRects();
+		for (Rectangle r : dirty) {
+			g.drawImage(screen.image, r.x*Game.SCALE, r.y*Game.SCALE, (r.x + r.width)*Game.SCALE, (r.y + r.height)*Game.SCALE,
+					r.x, r.y, r.x + r.width, r.y + r.height, null);
+		}
+		screen.presented();
+		return backBuffer;
+	}
+}
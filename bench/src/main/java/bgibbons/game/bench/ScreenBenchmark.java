@@ -0,0 +1,73 @@
+package bgibbons.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bgibbons.game.Game;
+import bgibbons.game.graphics.Colors;
+import bgibbons.game.graphics.Screen;
+import bgibbons.game.graphics.SpriteSheet;
+
+/**
+ * Benchmarks Screen.render for a screen full of sprites at each scale and mirror direction.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScreenBenchmark {
+
+	@Param({"1", "2"})
+	public int scale;
+
+	@Param({"0", "1", "2", "3"})
+	public int mirrorDir;
+
+	private Screen screen;
+	private int[] tiles;	// Tiles drawn each call, cycled so the cache sees a realistic working set
+	private int color;
+
+	/**
+	 * Creates the screen and the tiles to draw.
+	 */
+	@Setup
+	public void setup() {
+		screen = new Screen(Game.WIDTH, Game.HEIGHT, new SpriteSheet("/res/sprite_sheet.png"), Colors.getPalette());
+		tiles = new int[64];
+		for (int i=0; i<tiles.length; i++) {
+			tiles[i] = (i % 8) + (i / 8 + 20) * 32;
+		}
+		color = Colors.get(-1, 000, 320, 555);
+	}
+
+	/**
+	 * Covers the screen with sprites, including the clipped ones along the edges.
+	 * @return The screen, so the writes are not optimized away.
+	 */
+	@Benchmark
+	public Screen renderScreenOfSprites() {
+		int size = 8 * scale;
+		int i = 0;
+		for (int y=-size/2; y<screen.height + size/2; y+=size) {
+			for (int x=-size/2; x<screen.width + size/2; x+=size) {
+				screen.render(x, y, tiles[i++ & 63], color, mirrorDir, scale);
+			}
+		}
+		return screen;
+	}
+}
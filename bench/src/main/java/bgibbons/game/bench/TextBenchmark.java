@@ -0,0 +1,73 @@
+package bgibbons.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bgibbons.game.Game;
+import bgibbons.game.entities.Player;
+import bgibbons.game.graphics.Colors;
+import bgibbons.game.graphics.Font;
+import bgibbons.game.graphics.HUD;
+import bgibbons.game.graphics.Screen;
+import bgibbons.game.graphics.SpriteSheet;
+import bgibbons.game.level.Level;
+
+/**
+ * Benchmarks the text and HUD drawn over every frame.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextBenchmark {
+
+	private Screen screen;
+	private Game game;
+	private int frame;
+
+	/**
+	 * Creates the screen and a headless game with a player for the HUD to read.
+	 */
+	@Setup
+	public void setup() {
+		screen = new Screen(Game.WIDTH, Game.HEIGHT, new SpriteSheet("/res/sprite_sheet.png"), Colors.getPalette());
+		Level level = new Level("/res/levels/main_level.png", null, true);
+		game = new Game(true);
+		game.player = new Player(level, 100, 100, null);
+		frame = 0;
+	}
+
+	/**
+	 * Renders a line of text the length of the end screen's stats.
+	 * @return The screen, so the writes are not optimized away.
+	 */
+	@Benchmark
+	public Screen renderFont() {
+		Font.render("Kills:" + (frame++ & 1023), screen, screen.xOffset+8, screen.yOffset+56, Colors.get(-1,-1,-1,555), 1);
+		return screen;
+	}
+
+	/**
+	 * Renders the HUD with the player's experience, health and rank.
+	 * @return The screen, so the writes are not optimized away.
+	 */
+	@Benchmark
+	public Screen renderHUD() {
+		HUD.render(screen, game);
+		return screen;
+	}
+}
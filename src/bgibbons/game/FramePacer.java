@@ -0,0 +1,151 @@
+package bgibbons.game;
+
+/**
+ * Class to pace the frames rendered by the game loop so it does not spin a full core.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class FramePacer {
+
+	public static final int UNLIMITED = 0;					// Max fps value to render as fast as possible
+	private static final long MIN_SPIN = 1000000L;		// Fewest nano seconds before a deadline to stop sleeping and start spinning
+	private static final long MAX_SPIN = 8000000L;		// Most nano seconds before a deadline to stop sleeping and start spinning
+
+	private int maxFps;			// Frames per second cap while the game is in the foreground
+	private int lowPowerFps;	// Frames per second cap while the game is minimized or unfocused
+	private volatile boolean minimized;	// Whether the window is currently minimized, set from the event dispatch thread
+	private volatile boolean focused;	// Whether the window currently has focus, set from the event dispatch thread
+	private long nextFrameTime;	// System time in nano seconds the next frame is due
+	private long spinThreshold;	// Nano seconds before a deadline to stop sleeping, adapted to how late sleeps wake up
+
+	/**
+	 * Constructor for the FramePacer object.
+	 * @param maxFps 		The frames per second cap, or UNLIMITED to render every pass.
+	 * @param lowPowerFps 	The frames per second cap used while minimized or unfocused.
+	 */
+	public FramePacer(int maxFps, int lowPowerFps) {
+		this.maxFps = maxFps;
+		this.lowPowerFps = lowPowerFps;
+		this.minimized = false;
+		this.focused = true;
+		this.nextFrameTime = System.nanoTime();
+		this.spinThreshold = 2*MIN_SPIN;
+	}
+
+	/**
+	 * Returns the frames per second cap.
+	 * @return The frames per second cap, or UNLIMITED.
+	 */
+	public int getMaxFps() {
+		return maxFps;
+	}
+
+	/**
+	 * Sets the frames per second cap.
+	 * @param maxFps 	The new frames per second cap, or UNLIMITED to render every pass.
+	 */
+	public void setMaxFps(int maxFps) {
+		this.maxFps = maxFps;
+	}
+
+	/**
+	 * Sets whether the window is minimized.
+	 * @param minimized 	True if the window is minimized, false otherwise.
+	 */
+	public void setMinimized(boolean minimized) {
+		this.minimized = minimized;
+	}
+
+	/**
+	 * Sets whether the window has focus.
+	 * @param focused 	True if the window has focus, false otherwise.
+	 */
+	public void setFocused(boolean focused) {
+		this.focused = focused;
+	}
+
+	/**
+	 * Returns whether the pacer is in low power mode.
+	 * @return A boolean, true if the window is minimized or unfocused, false otherwise.
+	 */
+	public boolean isLowPower() {
+		return minimized || !focused;
+	}
+
+	/**
+	 * Returns whether frames are rendered on every pass of the game loop.
+	 * @return A boolean, true if there is no frame cap in effect, false otherwise.
+	 */
+	public boolean isUnlimited() {
+		return !isLowPower() && maxFps <= UNLIMITED;
+	}
+
+	/**
+	 * Returns the number of nano seconds between frames for the cap currently in effect.
+	 * @return The nano seconds between frames, 0 if unlimited.
+	 */
+	public long getFrameInterval() {
+		if (isLowPower()) {
+			return 1000000000L/lowPowerFps;
+		}
+		if (maxFps <= UNLIMITED) {
+			return 0;
+		}
+		return 1000000000L/maxFps;
+	}
+
+	/**
+	 * Returns the system time in nano seconds the next frame is due.
+	 * @return The system time in nano seconds the next frame is due.
+	 */
+	public long getNextFrameTime() {
+		return nextFrameTime;
+	}
+
+	/**
+	 * Checks if a frame is due and schedules the next one if so.
+	 * @param now 	The current system time in nano seconds.
+	 * @return A boolean, true if a frame should be rendered, false otherwise.
+	 */
+	public boolean shouldRender(long now) {
+		long interval = getFrameInterval();
+		if (interval == 0) {
+			nextFrameTime = now;
+			return true;
+		}
+		if (now - nextFrameTime < 0) {
+			return false;
+		}
+		nextFrameTime += interval;
+		if (nextFrameTime - now <= 0) { // Fell behind, do not try to render the missed frames
+			nextFrameTime = now + interval;
+		}
+		return true;
+	}
+
+	/**
+	 * Waits until the given deadline by sleeping for most of the time and spinning for the remainder.
+	 * @param deadline 	The system time in nano seconds to wait until.
+	 */
+	public void waitUntil(long deadline) {
+		long start = System.nanoTime();
+		long remaining = deadline - start;
+		if (remaining > spinThreshold) {
+			long sleepTime = (remaining - spinThreshold)/1000000L;
+			try {
+				Thread.sleep(sleepTime);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			// Keep twice the average oversleep in reserve for spinning
+			long overslept = (System.nanoTime() - start) - sleepTime*1000000L;
+			spinThreshold += (2*overslept - spinThreshold)/8;
+			if (spinThreshold < MIN_SPIN) spinThreshold = MIN_SPIN;
+			if (spinThreshold > MAX_SPIN) spinThreshold = MAX_SPIN;
+		}
+		while (deadline - System.nanoTime() > 0) {
+			Thread.yield();
+		}
+	}
+}
@@ -1,14 +1,21 @@
 package bgibbons.game;
 
 import java.awt.Canvas;
+import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.BorderLayout;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.ImageCapabilities;
 import java.awt.image.BufferStrategy;
 import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
+import java.util.ArrayList;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.swing.JFrame;
 
@@ -16,9 +23,11 @@ import bgibbons.game.entities.*;
 import bgibbons.game.graphics.Colors;
 import bgibbons.game.graphics.Font;
 import bgibbons.game.graphics.HUD;
+import bgibbons.game.graphics.PerformanceOverlay;
 import bgibbons.game.graphics.Screen;
 import bgibbons.game.graphics.SpriteSheet;
 import bgibbons.game.level.Level;
+import bgibbons.game.level.LevelScheduler;
 /**
  * Main class for the game engine.
  * @author Brad Gibbons
@@ -35,15 +44,34 @@ public class Game extends Canvas implements Runnable
 	public static final int HEIGHT = WIDTH*4/5;			// Height of the image to be displayed
 	public static final int SCALE = 3;					// Scale of the image to be displayed
 	public static final String NAME = "Game";			// Name to displayed for the JFrame
+	public static final int MAX_FPS = Integer.getInteger("game.fps", 60);	// Frame cap, 0 for unlimited (-Dgame.fps=0 when benchmarking)
+	public static final int LOW_POWER_FPS = 10;			// Frame cap while the JFrame is minimized or unfocused
+	public static final int TICK_RATE = Integer.getInteger("game.tps", 60);	// Default simulation ticks per second
+	public static final int MAX_CATCHUP_TICKS = 5;		// Most ticks ran back to back before the backlog is dropped
+	public static final boolean PRINT_PROFILE = Boolean.getBoolean("game.profile");	// Print the profiler's timings to the console, not just when the overlay turns timing on
+	public static final int BUFFERS = 3;				// Number of buffers in the BufferStrategy
 
 	private JFrame frame;	// Declare JFrame object
+	private boolean headless;	// Whether the game runs without a JFrame, audio or rendering
 
 	public boolean running = false;	// Variable to track if the game is running
 	public int tickCount = 0;		// Variable to track the tick count
-
-	private BufferedImage image = new BufferedImage(WIDTH,HEIGHT,BufferedImage.TYPE_INT_RGB);	// Initialize the Buffered image with a set width, height, and type
-	private int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();		// An array to hold the pixels of the image
-	private int[] colors = new int[6*6*6];														// An array of the colors available to use for the image
+	public FramePacer pacer = new FramePacer(MAX_FPS, LOW_POWER_FPS);	// Paces the frames rendered by the game loop
+	private int tickRate = TICK_RATE;		// Simulation ticks per second
+	private long droppedTicks = 0;			// Number of ticks skipped because the loop fell too far behind
+	private long droppedTime = 0;			// Nano seconds of simulation skipped because the loop fell too far behind
+	private double interpolation = 1;		// Fraction of the way from the last tick to the next, used to smooth rendering
+	private int fps = 0;					// Frames rendered in the last full second
+	private int tps = 0;					// Ticks ran in the last full second
+	public boolean showDirtyRegions = false;	// Debug overlay outlining the regions drawn each frame
+	private boolean dirtyKeyWasPressed = false;
+	public boolean showPerformance = false;		// Debug overlay showing the frame rate, timings and entity counts
+	private boolean performanceKeyWasPressed = false;
+	private boolean profilerWasEnabled = false;	// Whether timing was on before the performance overlay turned it on
+	private PerformanceOverlay performanceOverlay = new PerformanceOverlay();
+	private boolean singleBackBuffer = false;	// Whether the buffer strategy blits one back buffer to the window, so it keeps the last frame drawn
+
+	private int[] colors;	// An array of the colors available to use for the image
 
 	private long startTime;
 	private long endTime;
@@ -54,6 +82,7 @@ public class Game extends Canvas implements Runnable
 	public Level combatLevel;	// Declare the combat level object.
 	public Level dungeon1;		// Declare the first dungeon level.
 	public Level dungeon2;		// Declare the second dungeon level.
+	private LevelScheduler scheduler = LevelScheduler.forProcessors();	// Ticks every level each tick and moves entities between them.
 	public Combat combat; 		// Declare the combat object.
 	public Player player;		// Declare the Player object.
 	public Menu menu;			// Declare the Menu object.
@@ -71,6 +100,20 @@ public class Game extends Canvas implements Runnable
 	 */
 	public Game()
 	{
+		this(false);
+	}
+
+	/**
+	 * Constructor for the Game object, initializing the JFrame unless headless.
+	 * @param headless 	True to run the simulation without a JFrame, audio or rendering.
+	 */
+	public Game(boolean headless)
+	{
+		this.headless = headless;
+		if (headless) {
+			Sound.setEnabled(false);
+			return;
+		}
 
 		setMinimumSize(new Dimension(WIDTH*SCALE, HEIGHT*SCALE));
 		setMaximumSize(new Dimension(WIDTH*SCALE, HEIGHT*SCALE));
@@ -85,6 +128,24 @@ public class Game extends Canvas implements Runnable
 
 		frame.setResizable(false);
 		frame.setLocationRelativeTo(null);
+		frame.addWindowListener(new WindowAdapter() {
+			public void windowIconified(WindowEvent e) {
+				pacer.setMinimized(true);
+			}
+
+			public void windowDeiconified(WindowEvent e) {
+				pacer.setMinimized(false);
+			}
+		});
+		frame.addWindowFocusListener(new WindowAdapter() {
+			public void windowGainedFocus(WindowEvent e) {
+				pacer.setFocused(true);
+			}
+
+			public void windowLostFocus(WindowEvent e) {
+				pacer.setFocused(false);
+			}
+		});
 		frame.setVisible(true);
 	}
 
@@ -93,29 +154,32 @@ public class Game extends Canvas implements Runnable
 	 */
 	public void init()
 	{
-		int index = 0;
-		for (int r=0; r<6; r++) {
-			for (int g=0; g<6; g++) {
-				for (int b=0; b<6; b++) {
-					int rr = (r * 255/5);
-					int gg = (g * 255/5);
-					int bb = (b * 255/5);
-
-					colors[index++] = rr << 16 | gg << 8 | bb;
-				}
-			}
-		}
+		colors = Colors.getPalette();
 
-		screen = new Screen(WIDTH, HEIGHT, new SpriteSheet("/res/sprite_sheet.png"));	// Initialize the Screen with the width and height specified above and use the sprite sheet in the res/ folder.
-		input = new InputHandler(this);													// Initialize the InputHandler to interact with the Game.
+		screen = new Screen(WIDTH, HEIGHT, new SpriteSheet("/res/sprite_sheet.png"), colors);	// Initialize the Screen with the width and height specified above and use the sprite sheet in the res/ folder.
+		screen.setBufferCount(1);	// The back buffer holds the last frame when only the dirty regions are drawn
+		if (input == null) {
+			input = headless ? new ScriptedInput(this, 0) : new InputHandler(this);	// Initialize the InputHandler to interact with the Game.
+		}
 		main_level = new Level("/res/levels/main_level.png", "/res/entities/main_level.png", true);						// Initialize the Level object with the map and entities to be added on startup.
 		combatLevel = new Level("/res/levels/combat_level.png", null, false);			// Initialize the combat level object with the map, but no entities.
 		dungeon1 = new Level(null, null, false);												// Initialize the first dungeon level, map and entities to be added procedurally
 		dungeon1.spawn(1, 40);
 		dungeon2 = new Level(null, null, false);												// Initialize the second dungeon level, map and entities to be added procedurally
 		dungeon2.spawn(2, 40);
+		main_level.setSleepEnabled(true);												// Let enemies far from the player sleep.
+		dungeon1.setSleepEnabled(true);
+		dungeon2.setSleepEnabled(true);
+		if (Runtime.getRuntime().availableProcessors() > 1) {							// Let crowds of entities think on every core.
+			main_level.setThinkPool(ForkJoinPool.commonPool());
+		}
 		player = new Player(main_level, 16, main_level.height*8/2, input);				// Initialize the Player object with the level at the set coordinates interacting with the input handler.
 		main_level.addEntity(player);													// Add the player to the level.
+		scheduler.clear();																// Tick every level, whichever the player is on.
+		scheduler.add(main_level);
+		scheduler.add(dungeon1);
+		scheduler.add(dungeon2);
+		scheduler.add(combatLevel);
 		menu = new Menu(input);															// Initialize the Menu object with the input handler.
 		state = States.START;
 		sound = new Sound("/res/sounds/BGM.wav"); 		//Intialize BGM sound object with path.
@@ -134,8 +198,10 @@ public class Game extends Canvas implements Runnable
 	 * Method to close the JFrame and stop the game.
 	 */
 	public void close() {
-		frame.setVisible(false);
-		frame.dispose();
+		if (frame != null) {
+			frame.setVisible(false);
+			frame.dispose();
+		}
 		System.exit(0);
 	}
 
@@ -154,12 +220,44 @@ public class Game extends Canvas implements Runnable
 		running = false;
 	}
 
+	/**
+	 * Returns the number of simulation ticks per second.
+	 * @return The number of simulation ticks per second.
+	 */
+	public int getTickRate() {
+		return tickRate;
+	}
+
+	/**
+	 * Sets the number of simulation ticks per second.
+	 * @param tickRate 	The new number of simulation ticks per second.
+	 */
+	public void setTickRate(int tickRate) {
+		this.tickRate = tickRate;
+	}
+
+	/**
+	 * Returns the number of ticks dropped because the game fell too far behind.
+	 * @return The number of ticks dropped.
+	 */
+	public long getDroppedTicks() {
+		return droppedTicks;
+	}
+
+	/**
+	 * Returns the simulation time dropped because the game fell too far behind.
+	 * @return The simulation time dropped in nano seconds.
+	 */
+	public long getDroppedTime() {
+		return droppedTime;
+	}
+
 	/**
 	 * Handles the running of the Game by rendering the level and performing game ticks.
 	 */
 	public void run() {
 		long lastTime = System.nanoTime();	// Gets the current system time in nano seconds
-		double nsPerTick = 1000000000D/60D;	//Sets the number of nano seconds per tick
+		long lastReport = lastTime;			// System time in nano seconds the ticks and frames were last counted
 
 		int ticks = 0;	// Initialize the number of ticks ran
 		int frames = 0;	// Initialize the number of frames rendered
@@ -169,22 +267,99 @@ public class Game extends Canvas implements Runnable
 		init();
 
 		while(running) {
+			double nsPerTick = 1000000000D/tickRate;	// Sets the number of nano seconds per tick
 			long now = System.nanoTime();
 			delta += (now - lastTime) / nsPerTick;
 			lastTime = now;
-			boolean shouldRender = true;
 
+			int catchUp = 0;
 			while(delta >= 1) { // Limit the ticks per second
+				if (catchUp == MAX_CATCHUP_TICKS) { // Drop the backlog rather than spiral
+					droppedTicks += (long)delta;
+					droppedTime += (long)((long)delta * nsPerTick);
+					delta -= (long)delta;
+					break;
+				}
 				ticks++;
 				tick();
 				delta --;
-				shouldRender = true;
+				catchUp++;
 			}
 
-			if (shouldRender) { // Can be used to limit FPS
+			if (pacer.shouldRender(System.nanoTime())) { // Limit the frames per second
 				frames++;
+				interpolation = delta + (System.nanoTime() - lastTime) / nsPerTick;
+				if (interpolation > 1) interpolation = 1;
 				render();
 			}
+
+			if (!pacer.isUnlimited()) { // Sleep until the next tick or frame is due
+				long nextTick = lastTime + (long)((1 - delta) * nsPerTick);
+				long nextFrame = pacer.getNextFrameTime();
+				pacer.waitUntil(nextFrame - nextTick < 0 ? nextFrame : nextTick);
+			}
+
+			if (System.nanoTime() - lastReport >= 1000000000L) { // Publish the counts once a second
+				lastReport = System.nanoTime();
+				tps = ticks;
+				fps = frames;
+				ticks = 0;
+				frames = 0;
+				if (PRINT_PROFILE) {
+					System.out.println(tps + " ticks, " + fps + " frames");
+					System.out.print(Profiler.report());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of frames rendered in the last full second.
+	 * @return The frames per second.
+	 */
+	public int getFps() {
+		return fps;
+	}
+
+	/**
+	 * Returns the number of ticks ran in the last full second.
+	 * @return The ticks per second.
+	 */
+	public int getTps() {
+		return tps;
+	}
+
+	/**
+	 * Returns the scheduler that ticks the levels.
+	 * @return The level scheduler.
+	 */
+	public LevelScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Runs the simulation without rendering as fast as possible and reports the ticks per second.
+	 * Starts a new game whenever the scripted player's game is over.
+	 * @param numTicks 	The number of ticks to run.
+	 */
+	public void runHeadless(long numTicks) {
+		init();
+		ScriptedInput script = (ScriptedInput) input;
+		int games = 1;
+		long start = System.nanoTime();
+		for (long i=0; i<numTicks; i++) {
+			script.tick();
+			tick();
+			if (state == States.OVER) {
+				init();
+				games++;
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		System.out.println("Headless: " + numTicks + " ticks over " + games + " games in " + (elapsed/1000000) + " ms");
+		System.out.println("Headless: " + (long)(numTicks * 1000000000D / elapsed) + " ticks per second");
+		if (PRINT_PROFILE) {
+			System.out.print(Profiler.report());
 		}
 	}
 
@@ -193,8 +368,26 @@ public class Game extends Canvas implements Runnable
 	 * Checks if player is in combat with another entity
 	 */
 	public void tick() {
+		long start = Profiler.start();
 		tickCount++;
 
+		if (input.dirtyOverlay.isPressed() && !dirtyKeyWasPressed) {
+			showDirtyRegions = !showDirtyRegions;
+			screen.markAllDirty();	// Clear the outlines out of every buffer
+		}
+		dirtyKeyWasPressed = input.dirtyOverlay.isPressed();
+
+		if (input.performanceOverlay.isPressed() && !performanceKeyWasPressed) {
+			showPerformance = !showPerformance;
+			if (showPerformance) { // The overlay reads its timings from the profiler
+				profilerWasEnabled = Profiler.isEnabled();
+				Profiler.setEnabled(true);
+			} else {
+				Profiler.setEnabled(profilerWasEnabled);
+			}
+		}
+		performanceKeyWasPressed = input.performanceOverlay.isPressed();
+
 		switch(state) {
 			case START:
 				menu.tick(this);
@@ -204,9 +397,10 @@ public class Game extends Canvas implements Runnable
 				menu.tick(this);
 				break;
 			case RUNNING:
-				player.getLevel().tick();
+				scheduler.tick(null);
 				Entity e = player.getLevel().getTouching(player);
-				if(e instanceof Mob) {
+				int touchedLayer = e == null ? Entity.LAYER_NONE : e.getCollisionLayer();
+				if(touchedLayer == Entity.LAYER_ENEMY) {
 					if (e instanceof Boss) {
 						boss = true;
 					}
@@ -217,8 +411,9 @@ public class Game extends Canvas implements Runnable
 					e.x = (combatLevel.width*8) - 24;
 					e.y = combatLevel.height*8/2;
 					player.setPrevLevel(player.getLevel());
-					combatLevel.addEntity(player.getLevel().removeEntity(e));
-					combatLevel.addEntity(player.getLevel().removeEntity(player));
+					scheduler.transfer(e, player.getLevel(), combatLevel);
+					scheduler.transfer(player, player.getLevel(), combatLevel);
+					scheduler.applyTransfers();	// Both have to be on the combat level to turn to face each other
 					player.move(-1,0);
 					player.move(1,0);
 					((Mob)e).move(1,0);
@@ -228,48 +423,49 @@ public class Game extends Canvas implements Runnable
 					state = States.COMBAT;
 					menu.state = Menu.MenuStates.COMBAT;
 					combat = new Combat(player, (Mob)e);
-				} else if (e instanceof HealthPad) {
+				} else if (touchedLayer == Entity.LAYER_PAD) {
 					player.heal(((HealthPad)e).activate());
 				}
 				//cases for level change
 				if(player.x > 520 && player.x <= 528 && player.getLevel() == main_level){
-					player.setLevel(dungeon1);
 					player.x = 8;
 					player.y = dungeon1.getStart()*8;
-					dungeon1.addEntity(main_level.removeEntity(player));
+					scheduler.transfer(player, main_level, dungeon1);
 				}
 				else if(player.x > 1192 && player.x <= 1200 && player.getLevel() == main_level){
-					player.setLevel(dungeon2);
 					player.x = 8;
 					player.y = dungeon2.getStart()*8;
-					dungeon2.addEntity(main_level.removeEntity(player));
+					scheduler.transfer(player, main_level, dungeon2);
 				}
 				else if(player.x >= 506 && player.getLevel() == dungeon1){
 					player.x = 672;
 					player.y = main_level.height*8/2;
-					main_level.addEntity(dungeon1.removeEntity(player));
+					scheduler.transfer(player, dungeon1, main_level);
 				}
 				else if(player.x >= 506 && player.getLevel() == dungeon2){
 					player.x = 1344;
 					player.y = main_level.height*8/2;
-					main_level.addEntity(dungeon2.removeEntity(player));
+					scheduler.transfer(player, dungeon2, main_level);
 				}
 				else if(player.x < 8 && player.getLevel() == dungeon1){
 					player.x = 496;
 					player.y = main_level.height*8/2;
-					main_level.addEntity(dungeon1.removeEntity(player));
+					scheduler.transfer(player, dungeon1, main_level);
 				}
 				else if(player.x < 8 && player.getLevel() == dungeon2){
 					player.x = 1334;
 					player.y = main_level.height*8/2;
-					main_level.addEntity(dungeon2.removeEntity(player));
+					scheduler.transfer(player, dungeon2, main_level);
 				}
 				menu.tick(this);
 				break;
 			case PAUSED:
+				player.getLevel().storePositions();	// Nothing moves, stop interpolating
 				menu.tick(this);
 				break;
 			case COMBAT:
+				player.getLevel().storePositions();
+				scheduler.tick(player.getLevel());	// The rest of the world carries on during the fight
 				menu.tick(this);
 				combat.tick();
 				if (!combat.inCombat && player.getCurrentHealth() > 0) {
@@ -282,25 +478,25 @@ public class Game extends Canvas implements Runnable
 					rng3=rand.nextInt(3);	//RNG the stat.
 					if(drop==0)
 					{
-					 combatLevel.addEntity(new Helmet(combatLevel,"Helmet","Of doom!",combat.combatant2.mob.getRank()+rng1,combat.combatant2.mob.getRank()+rng2,combat.combatant2.mob.getRank()+rng3));
+					 combatLevel.addEntity(Pools.acquireItem(Pools.HELMETS,combatLevel,"Helmet","Of doom!",combat.combatant2.mob.getRank()+rng1,combat.combatant2.mob.getRank()+rng2,combat.combatant2.mob.getRank()+rng3));
 				 	}
 					else if(drop==1)
 					{
-					 combatLevel.addEntity(new Chest(combatLevel,"Chest","Of doom!",combat.combatant2.mob.getRank()+rng1,combat.combatant2.mob.getRank()+rng2,combat.combatant2.mob.getRank()+rng3));
+					 combatLevel.addEntity(Pools.acquireItem(Pools.CHESTS,combatLevel,"Chest","Of doom!",combat.combatant2.mob.getRank()+rng1,combat.combatant2.mob.getRank()+rng2,combat.combatant2.mob.getRank()+rng3));
 				 	}
 					else if(drop==2)
 					{
-					 combatLevel.addEntity(new Legs(combatLevel,"Legs","Of doom!",combat.combatant2.mob.getRank()+rng1,combat.combatant2.mob.getRank()+rng2,combat.combatant2.mob.getRank()+rng3));
+					 combatLevel.addEntity(Pools.acquireItem(Pools.LEGS,combatLevel,"Legs","Of doom!",combat.combatant2.mob.getRank()+rng1,combat.combatant2.mob.getRank()+rng2,combat.combatant2.mob.getRank()+rng3));
 				 	}
 					else if(drop==3)
 					{
-					 combatLevel.addEntity(new Shield(combatLevel,"Shield","Of doom!",combat.combatant2.mob.getRank()+rng1,combat.combatant2.mob.getRank()+rng2,combat.combatant2.mob.getRank()+rng3));
+					 combatLevel.addEntity(Pools.acquireItem(Pools.SHIELDS,combatLevel,"Shield","Of doom!",combat.combatant2.mob.getRank()+rng1,combat.combatant2.mob.getRank()+rng2,combat.combatant2.mob.getRank()+rng3));
 				 	}
 					else if(drop==4)
 					{
-					 combatLevel.addEntity(new Weapon(combatLevel,"Weapon","Of doom!",combat.combatant2.mob.getRank()+rng1,combat.combatant2.mob.getRank()+rng2,combat.combatant2.mob.getRank()+rng3));
+					 combatLevel.addEntity(Pools.acquireItem(Pools.WEAPONS,combatLevel,"Weapon","Of doom!",combat.combatant2.mob.getRank()+rng1,combat.combatant2.mob.getRank()+rng2,combat.combatant2.mob.getRank()+rng3));
 				 	}
-					combatLevel.removeEntity(combat.combatant2.mob);
+					combatLevel.releaseEntity(combat.combatant2.mob);
 					player.addKill();
 					player.addExp(20);
 					if (boss) {
@@ -314,9 +510,9 @@ public class Game extends Canvas implements Runnable
 				break;
 			case POSTCOMBAT:
 				menu.tick(this);
-				player.getLevel().tick();
+				scheduler.tick(null);
 				e = player.getLevel().getTouching(player);
-				if (e instanceof Item) {
+				if (e != null && e.getCollisionLayer() == Entity.LAYER_PICKUP) {
 					if (player.pickUp((Item)e)) {
 						combatLevel.removeEntity(e);
 						lootFX.playFX();
@@ -324,11 +520,15 @@ public class Game extends Canvas implements Runnable
 				}
 				if (player.x >= 154) {
 					state = States.RUNNING;
-					combatLevel.removeEntity(player);
 					player.x = player.mainX;
 					player.y = player.mainY;
-					combatLevel.entities.clear();
-					player.getPrevLevel().addEntity(player);
+					scheduler.transfer(player, combatLevel, player.getPrevLevel());
+					for (Entity left : combatLevel.entities) {				// Loot left behind can drop again
+						if (left instanceof Item) {
+							Pools.release(left);
+						}
+					}
+					combatLevel.clearEntities();
 				}
 				break;
 			case OVER:
@@ -336,6 +536,8 @@ public class Game extends Canvas implements Runnable
 			default:
 				break;
 		}
+		scheduler.applyTransfers();	// The levels are all still, so entities can change levels
+		Profiler.stop(Profiler.Phase.TICK, start);
 	}
 
 	/**
@@ -344,13 +546,14 @@ public class Game extends Canvas implements Runnable
 	public void render() {
 
 		BufferStrategy bs = getBufferStrategy(); // Get the BufferStrategy
-		if (bs == null) { // If no currently set BufferStrategy, use triple buffering
-			createBufferStrategy(3);
+		if (bs == null) { // If no currently set BufferStrategy, create one that keeps the last frame if it can
+			createPresentStrategy();
 			return;
 		}
-		// Set the offset of the screen based on the player location
-		int xOffset = player.x - screen.width/2;
-		int yOffset = player.y - screen.height/2;
+		long start = Profiler.start();
+		// Set the offset of the screen based on the player location between the last two ticks
+		int xOffset = player.getRenderX(interpolation) - screen.width/2;
+		int yOffset = player.getRenderY(interpolation) - screen.height/2;
 		switch (state) {
 			case START:
 				for (int i=0; i<screen.width; i++) {
@@ -370,7 +573,7 @@ public class Game extends Canvas implements Runnable
 				break;
 			case RUNNING:
 				player.getLevel().renderTiles(screen, xOffset, yOffset);
-				player.getLevel().renderEntities(screen);
+				player.getLevel().renderEntities(screen, interpolation);
 
 				HUD.render(screen, this);
 
@@ -378,7 +581,7 @@ public class Game extends Canvas implements Runnable
 				break;
 			case PAUSED:
 				player.getLevel().renderTiles(screen, xOffset, yOffset);
-				player.getLevel().renderEntities(screen);
+				player.getLevel().renderEntities(screen, interpolation);
 
 				HUD.render(screen, this);
 
@@ -386,7 +589,7 @@ public class Game extends Canvas implements Runnable
 				break;
 			case COMBAT:
 				player.getLevel().renderTiles(screen, xOffset, yOffset);
-				player.getLevel().renderEntities(screen);
+				player.getLevel().renderEntities(screen, interpolation);
 
 				combat.render(screen);
 
@@ -396,7 +599,7 @@ public class Game extends Canvas implements Runnable
 				break;
 			case POSTCOMBAT:
 				player.getLevel().renderTiles(screen, xOffset, yOffset);
-				player.getLevel().renderEntities(screen);
+				player.getLevel().renderEntities(screen, interpolation);
 
 				HUD.render(screen, this);
 
@@ -426,26 +629,103 @@ public class Game extends Canvas implements Runnable
 				break;
 		}
 
+		if (showPerformance) {
+			performanceOverlay.render(screen, this);
+		}
 
-		// Set the values of the pixels
-		for (int y=0; y<screen.height; y++) {
-			for (int x=0; x<screen.width; x++) {
-				int colorCode = screen.pixels[x+y*screen.width];
-				if (colorCode < 255) pixels[x+y*WIDTH] = colors[colorCode];
+		BufferCapabilities caps = bs.getCapabilities();
+		boolean framesKept = caps.isPageFlipping() ? caps.getFlipContents() == BufferCapabilities.FlipContents.COPIED : singleBackBuffer;
+		if (!framesKept || bs.contentsLost() || bs.contentsRestored()) { // The back buffer may not hold the previous frame
+			screen.markAllDirty();
+		}
+
+		long blitStart = Profiler.start();
+		Graphics g = bs.getDrawGraphics();	// Creates a graphics context for the buffer
+		ArrayList<Rectangle> dirty = screen.getDirtyRects();
+		if (showDirtyRegions) {
+			g.drawImage(screen.image, 0, 0, getWidth(), getHeight(), null);
+			renderDirtyOverlay(g, dirty);
+		} else {
+			for (Rectangle r : dirty) { // Only draw the regions of the palette indexed screen image that changed
+				g.drawImage(screen.image, toCanvasX(r.x), toCanvasY(r.y), toCanvasX(r.x + r.width), toCanvasY(r.y + r.height),
+						r.x, r.y, r.x + r.width, r.y + r.height, null);
 			}
 		}
+		g.dispose();						// Diposes of the graphics context and releases any system resources that it is using
+		Profiler.stop(Profiler.Phase.BLIT, blitStart);
+		long showStart = Profiler.start();
+		bs.show();							// Make the next buffer visible
+		Profiler.stop(Profiler.Phase.SHOW, showStart);
+		screen.presented();
+		Profiler.stop(Profiler.Phase.RENDER, start);
+	}
+
+	/**
+	 * Creates the buffer strategy, asking for one whose back buffer still holds the last frame after it is shown, so only the dirty regions need drawing.
+	 * Page flipping copying the shown frame back is tried first, then one back buffer blitted to the window.
+	 * Failing both, the buffers' contents are undefined after a show and render draws the whole frame every time.
+	 */
+	private void createPresentStrategy() {
+		ImageCapabilities accelerated = new ImageCapabilities(true);
+		singleBackBuffer = false;
+		try {
+			createBufferStrategy(BUFFERS, new BufferCapabilities(accelerated, accelerated, BufferCapabilities.FlipContents.COPIED));
+			return;
+		} catch (AWTException e) {
+			// Page flipping that keeps the frame is not available here
+		}
+		try {
+			createBufferStrategy(2, new BufferCapabilities(accelerated, accelerated, null));
+			singleBackBuffer = true;
+		} catch (AWTException e) {
+			createBufferStrategy(BUFFERS);
+		}
+	}
+
+	/**
+	 * Outlines the dirty regions of the frame and shows the fraction of pixels changed.
+	 * @param g 		Graphics context for the buffer being drawn.
+	 * @param dirty 	The dirty rectangles of the frame in screen pixels.
+	 */
+	private void renderDirtyOverlay(Graphics g, ArrayList<Rectangle> dirty) {
+		g.setColor(Color.RED);
+		for (Rectangle r : dirty) {
+			g.drawRect(toCanvasX(r.x), toCanvasY(r.y), toCanvasX(r.x + r.width) - toCanvasX(r.x) - 1, toCanvasY(r.y + r.height) - toCanvasY(r.y) - 1);
+		}
+		g.setColor(Color.BLACK);
+		g.fillRect(0, getHeight() - 16, 160, 16);
+		g.setColor(Color.YELLOW);
+		g.drawString("Dirty: " + dirty.size() + " rects, " + (int)(screen.getTouchedFraction() * 100) + "% px", 4, getHeight() - 4);
+	}
 
-		Graphics g = bs.getDrawGraphics();							// Creates a graphics context for the buffer
-		g.drawImage(image, 0, 0, getWidth(), getHeight(), null);	// Draws the image from (0,0) to the (width,height) with no ImageObserver
-		g.dispose();												// Diposes of the graphics context and releases any system resources that it is using
-		bs.show();													// Make the next buffer visible
+	/**
+	 * Converts an x coordinate on the screen image to the scaled canvas.
+	 * @param x 	The x coordinate on the screen image.
+	 * @return The x coordinate on the canvas.
+	 */
+	private int toCanvasX(int x) {
+		return x * getWidth() / screen.width;
+	}
+
+	/**
+	 * Converts a y coordinate on the screen image to the scaled canvas.
+	 * @param y 	The y coordinate on the screen image.
+	 * @return The y coordinate on the canvas.
+	 */
+	private int toCanvasY(int y) {
+		return y * getHeight() / screen.height;
 	}
 	/**
 	 * Main method to be ran for the program.
-	 * @param args	Arguments to be passed into the program.
+	 * @param args	Arguments to be passed into the program, "-headless [ticks]" to run the simulation without a display.
 	 */
 		public static void main(String[] args)
 		{
+			if (args.length > 0 && args[0].equals("-headless")) {
+				long numTicks = args.length > 1 ? Long.parseLong(args[1]) : 60*60*10;
+				new Game(true).runHeadless(numTicks);
+				System.exit(0);
+			}
 			new Game().start();
 		}
 }
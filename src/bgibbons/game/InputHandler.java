@@ -25,6 +25,13 @@ public class InputHandler implements KeyListener, MouseListener {
 		this.isMouseClicked = false;
 	}
 
+	/**
+	 * Constructor for an InputHandler that is not attached to any component, used for scripted input.
+	 */
+	protected InputHandler() {
+		this.isMouseClicked = false;
+	}
+
 	/**
 	 * Key object to keep track of keys currently pressed
 	 * @author Brad Gibbons
@@ -66,6 +73,8 @@ public class InputHandler implements KeyListener, MouseListener {
 	public Key down = new Key();
 	public Key left = new Key();
 	public Key right = new Key();
+	public Key dirtyOverlay = new Key();	// Debug key to show the regions drawn each frame
+	public Key performanceOverlay = new Key();	// Debug key to show the frame rate, timings and entity counts
 
 	/**
 	 * Method to handle if a key is pressed.
@@ -109,6 +118,12 @@ public class InputHandler implements KeyListener, MouseListener {
 		if (keyCode == KeyEvent.VK_D || keyCode == KeyEvent.VK_RIGHT) { 
 			right.toggle(isPressed); 
 		}
+		if (keyCode == KeyEvent.VK_F3) {
+			performanceOverlay.toggle(isPressed);
+		}
+		if (keyCode == KeyEvent.VK_F4) {
+			dirtyOverlay.toggle(isPressed);
+		}
 	}
 
 	/**
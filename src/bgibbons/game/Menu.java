@@ -304,6 +304,7 @@ public class Menu {
 	 * @param screen 	Screen to render to.
 	 */
 	public void render(Game game, Screen screen) {
+		long start = Profiler.start();
 		int width = 0;
 		int height = 0;
 		switch (state) {
@@ -711,6 +712,7 @@ public class Menu {
 			default:
 				break;
 		}
+		Profiler.stop(Profiler.Phase.MENU, start);
 	}
 
 }
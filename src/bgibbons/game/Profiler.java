@@ -0,0 +1,96 @@
+package bgibbons.game;
+
+/**
+ * Class to time the phases of the game's ticks and frames into rolling histograms.
+ * Timing is off unless enabled with setEnabled or -Dgame.profile=true, in which case start and stop cost a single branch.
+ * Usage: long start = Profiler.start(); ... Profiler.stop(Profiler.Phase.HUD, start);
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class Profiler {
+
+	public enum Phase {TICK, LEVELS, LEVEL_TICK, TOUCHING, RENDER, RENDER_TILES, RENDER_ENTITIES, HUD, MENU, BLIT, SHOW}
+
+	public static final int WINDOW = 256;	// Number of most recent samples each phase reports over
+
+	private static boolean enabled = Boolean.getBoolean("game.profile");
+	private static final RollingHistogram[] histograms = new RollingHistogram[Phase.values().length];
+
+	static {
+		for (int i=0; i<histograms.length; i++) {
+			histograms[i] = new RollingHistogram(WINDOW);
+		}
+	}
+
+	/**
+	 * Sets whether the phases are timed.
+	 * @param enabled 	True to time the phases, false otherwise.
+	 */
+	public static void setEnabled(boolean enabled) {
+		Profiler.enabled = enabled;
+	}
+
+	/**
+	 * Returns whether the phases are timed.
+	 * @return A boolean, true if the phases are timed, false otherwise.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts timing a phase.
+	 * @return The system time in nano seconds to pass to stop, 0 if timing is off.
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Stops timing a phase and records how long it took.
+	 * @param phase 	The phase that was timed.
+	 * @param start 	The value returned by start when the phase began.
+	 */
+	public static void stop(Phase phase, long start) {
+		if (enabled && start != 0) {
+			RollingHistogram histogram = histograms[phase.ordinal()];
+			synchronized (histogram) { // Levels are ticked on worker threads
+				histogram.record(System.nanoTime() - start);
+			}
+		}
+	}
+
+	/**
+	 * Returns the histogram of a phase's recent timings in nano seconds.
+	 * @param phase 	The phase to get the histogram of.
+	 * @return The RollingHistogram of the phase.
+	 */
+	public static RollingHistogram get(Phase phase) {
+		return histograms[phase.ordinal()];
+	}
+
+	/**
+	 * Forgets the timings of every phase.
+	 */
+	public static void reset() {
+		for (RollingHistogram h : histograms) {
+			h.reset();
+		}
+	}
+
+	/**
+	 * Returns a table of the p50, p99 and max timings of every phase that has been timed.
+	 * @return The table, one line per phase, with timings in micro seconds.
+	 */
+	public static String report() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-16s %8s %8s %8s %8s%n", "phase", "count", "p50us", "p99us", "maxus"));
+		for (Phase phase : Phase.values()) {
+			RollingHistogram h = get(phase);
+			if (h.size() == 0) continue;
+			sb.append(String.format("%-16s %8d %8.1f %8.1f %8.1f%n", phase, h.getCount(),
+					h.getPercentile(50)/1000.0, h.getPercentile(99)/1000.0, h.getMax()/1000.0));
+		}
+		return sb.toString();
+	}
+}
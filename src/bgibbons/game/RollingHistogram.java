@@ -0,0 +1,103 @@
+package bgibbons.game;
+
+import java.util.Arrays;
+
+/**
+ * Class to keep the most recent timing samples and report percentiles over them.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class RollingHistogram {
+
+	private long[] samples;		// Ring buffer of the most recent samples
+	private long[] sorted;		// Scratch array the samples are sorted into when read
+	private int next;			// Slot the next sample is written to
+	private int size;			// Number of slots holding a sample
+	private long count;			// Samples recorded since the last reset, including ones rolled out of the window
+
+	/**
+	 * Constructor for the RollingHistogram object.
+	 * @param window 	The number of most recent samples to report over.
+	 */
+	public RollingHistogram(int window) {
+		this.samples = new long[window];
+		this.sorted = new long[window];
+		reset();
+	}
+
+	/**
+	 * Records a sample, replacing the oldest one if the window is full.
+	 * @param value 	The sample to record.
+	 */
+	public void record(long value) {
+		samples[next] = value;
+		next = (next + 1) % samples.length;
+		if (size < samples.length) size++;
+		count++;
+	}
+
+	/**
+	 * Forgets every sample.
+	 */
+	public void reset() {
+		next = 0;
+		size = 0;
+		count = 0;
+	}
+
+	/**
+	 * Returns the number of samples recorded since the last reset.
+	 * @return The number of samples recorded.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the number of samples currently in the window.
+	 * @return The number of samples in the window.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the sample at the given percentile of the window.
+	 * @param percentile 	Percentile from 0 to 100.
+	 * @return The sample at the percentile, 0 if there are no samples.
+	 */
+	public long getPercentile(double percentile) {
+		if (size == 0) return 0;
+		System.arraycopy(samples, 0, sorted, 0, size);
+		Arrays.sort(sorted, 0, size);
+		int index = (int) Math.ceil(percentile / 100 * size) - 1;
+		if (index < 0) index = 0;
+		if (index >= size) index = size - 1;
+		return sorted[index];
+	}
+
+	/**
+	 * Returns the largest sample in the window.
+	 * @return The largest sample, 0 if there are no samples.
+	 */
+	public long getMax() {
+		long max = 0;
+		for (int i=0; i<size; i++) {
+			if (samples[i] > max) max = samples[i];
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the average of the samples in the window.
+	 * @return The average sample, 0 if there are no samples.
+	 */
+	public long getMean() {
+		if (size == 0) return 0;
+		long total = 0;
+		for (int i=0; i<size; i++) {
+			total += samples[i];
+		}
+		return total / size;
+	}
+}
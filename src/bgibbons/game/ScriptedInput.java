@@ -0,0 +1,76 @@
+package bgibbons.game;
+
+import java.awt.event.MouseEvent;
+import java.util.Random;
+
+/**
+ * An extension of the InputHandler class that plays the game from a seeded script instead of the keyboard and mouse.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class ScriptedInput extends InputHandler {
+
+	private Game game;			// Game the script is playing
+	private Random rand;		// Seeded random to make runs repeatable
+	private int ticksToChange;	// Ticks left before the walking direction changes
+
+	/**
+	 * Constructor for the ScriptedInput object.
+	 * @param game 	Game to be played by the script.
+	 * @param seed 	Seed for the script's random choices.
+	 */
+	public ScriptedInput(Game game, long seed) {
+		super();
+		this.game = game;
+		this.rand = new Random(seed);
+		this.ticksToChange = 0;
+	}
+
+	/**
+	 * Advances the script by one tick, pressing keys and clicking the menus based on the game state.
+	 */
+	public void tick() {
+		switch (game.state) {
+			case START:
+				click(240, 200);	// Begin button
+				break;
+			case CLASSES:
+				click(100, 130);	// Knight button
+				break;
+			case RUNNING:
+				if (--ticksToChange <= 0) {
+					ticksToChange = rand.nextInt(60) + 30;
+					int dir = rand.nextInt(5);
+					up.toggle(dir == 0);
+					down.toggle(dir == 1);
+					left.toggle(dir == 2);
+					right.toggle(dir == 3 || dir == 4);	// Lean right to reach the dungeons
+				}
+				break;
+			case COMBAT:
+				if (rand.nextInt(10) == 0) {
+					int ability = rand.nextInt(4);
+					click(ability % 2 == 0 ? 100 : 300, ability < 2 ? 270 : 320);
+				}
+				break;
+			case POSTCOMBAT:
+				up.toggle(false);
+				down.toggle(false);
+				left.toggle(false);
+				right.toggle(true);	// Walk over the loot and out of the combat level
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Clicks the mouse at the given location on the scaled canvas.
+	 * @param x 	The x coordinate of the click.
+	 * @param y 	The y coordinate of the click.
+	 */
+	private void click(int x, int y) {
+		this.me = new MouseEvent(game, MouseEvent.MOUSE_CLICKED, System.currentTimeMillis(), 0, x, y, 1, false);
+		this.isMouseClicked = true;
+	}
+}
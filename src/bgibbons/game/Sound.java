@@ -9,24 +9,43 @@ import java.applet.AudioClip;
  */
 public class Sound
 {
+  private static boolean enabled = true; // Whether sounds are loaded and played, false for headless runs
   private AudioClip clip; // Creating an audio clip
   public boolean isPlaying;
+
+  /**
+   * Turns audio on or off for every Sound created afterwards.
+   * @param enabled 	False to make new Sound objects silent no-ops.
+   */
+  public static void setEnabled(boolean enabled)
+  {
+    Sound.enabled = enabled;
+  }
+
   /**
    * Constructor for the Sound object.
    * @param path 	The path to the audio file.
    */
   public Sound(String path)
   {
+    this.isPlaying = false;
+    if (!enabled)
+    {
+      return;
+    }
     try
     {
       clip = Applet.newAudioClip(Sound.class.getResource(path));//Set path
     }catch(Exception e){
         e.printStackTrace();
     }
-    this.isPlaying = false;
   }
   public void play()//Play the music
   {
+    if (clip == null)
+    {
+      return;
+    }
     try
     {
       new Thread(){
@@ -41,6 +60,10 @@ public class Sound
   }
   public void playFX()//Play the music
   {
+    if (clip == null)
+    {
+      return;
+    }
     try
     {
       new Thread(){
@@ -55,11 +78,11 @@ public class Sound
   }
   public void pause() {
     isPlaying = false;
-    clip.stop();
+    if (clip != null) clip.stop();
   }
 
   public void resume() {
     isPlaying = true;
-    clip.loop();
+    if (clip != null) clip.loop();
   }
 }
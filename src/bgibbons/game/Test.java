@@ -37,5 +37,13 @@ public class Test  {
 		combatTester.run();
 		System.out.println("---------Ending Combat Testing Suite---------");
 		System.out.println("");
+		Test_Screen screenTester = new Test_Screen();
+		screenTester.run();
+		System.out.println("---------Ending Screen Testing Suite---------");
+		System.out.println("");
+		Test_Level levelTester = new Test_Level();
+		levelTester.run();
+		System.out.println("---------Ending Level Testing Suite---------");
+		System.out.println("");
 	}
 }
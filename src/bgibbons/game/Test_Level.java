@@ -0,0 +1,642 @@
+package bgibbons.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import bgibbons.game.entities.*;
+import bgibbons.game.graphics.Screen;
+import bgibbons.game.graphics.SpriteSheet;
+import bgibbons.game.level.ActivityRegions;
+import bgibbons.game.level.CaveAutomaton;
+import bgibbons.game.level.Level;
+import bgibbons.game.level.LevelScheduler;
+import bgibbons.game.level.tiles.Tile;
+
+/**
+ * Testing class for testing the level's entity bookkeeping.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class Test_Level {
+
+	/**
+	 * Runs all the tests.
+	 */
+	public void run() {
+		System.out.println("---------Starting Level Testing Suite---------");
+		System.out.println("testGridTouchingMatchesScan - " + testGridTouchingMatchesScan());
+		System.out.println("testGridQueriesMatchScan - " + testGridQueriesMatchScan());
+		System.out.println("testGridFollowsTransfers - " + testGridFollowsTransfers());
+		System.out.println("testCollisionLayers - " + testCollisionLayers());
+		System.out.println("testSweptMoveMatchesProbes - " + testSweptMoveMatchesProbes());
+		System.out.println("testEnemyStoreWalksLikeMobs - " + testEnemyStoreWalksLikeMobs());
+		System.out.println("testDistantEnemiesSleep - " + testDistantEnemiesSleep());
+		System.out.println("testSchedulerTicksEveryLevel - " + testSchedulerTicksEveryLevel());
+		System.out.println("testThinkingIsDeterministic - " + testThinkingIsDeterministic());
+		System.out.println("testRemovalKeepsSlotsAndAreas - " + testRemovalKeepsSlotsAndAreas());
+		System.out.println("testRenderCullsAndSortsByDepth - " + testRenderCullsAndSortsByDepth());
+		System.out.println("testQuadrantCountsFollowOrcs - " + testQuadrantCountsFollowOrcs());
+		System.out.println("testPooledOrcsComeBackNew - " + testPooledOrcsComeBackNew());
+		System.out.println("testCaveAutomatonMatchesCellByCell - " + testCaveAutomatonMatchesCellByCell());
+		System.out.println("testDungeonsJoinStartToEnd - " + testDungeonsJoinStartToEnd());
+	}
+
+	/**
+	 * Loads the main level and crowds it with extra orcs.
+	 * @param orcs 	The number of orcs to add.
+	 * @return The crowded level.
+	 */
+	private Level crowdedLevel(int orcs) {
+		Level level = new Level("/res/levels/main_level.png", "/res/entities/main_level.png", true);
+		Random rand = new Random(448);
+		int added = 0;
+		while (added < orcs) {
+			int x = rand.nextInt(level.width);
+			int y = rand.nextInt(level.height);
+			Tile tile = level.getTile(x, y);
+			if (!tile.isSolid() && tile != Tile.VOID) {
+				level.addEntity(new Orc(level, x << 3, y << 3));
+				added++;
+			}
+		}
+		return level;
+	}
+
+	/**
+	 * Finds the touching entity by scanning the whole entity list.
+	 * @param level 	Level to scan.
+	 * @param entity 	Entity to check.
+	 * @return The touching entity with the lowest gridOrder, null if none.
+	 */
+	private Entity scanTouching(Level level, Entity entity) {
+		Entity touching = null;
+		for (Entity e : level.entities) {
+			if (entity.isTouching(e) && entity != e && (touching == null || e.gridOrder < touching.gridOrder)) {
+				touching = e;
+			}
+		}
+		return touching;
+	}
+
+	/**
+	 * Tests that the grid finds the same touching entity as a full scan while orcs wander, fight and respawn.
+	 * @return A boolean, true if every query matched, false otherwise.
+	 */
+	public boolean testGridTouchingMatchesScan() {
+		Level level = crowdedLevel(300);
+		for (int tick=0; tick<100; tick++) {
+			level.tick();
+			for (Entity e : level.entities) {
+				if (level.getTouching(e) != scanTouching(level, e)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests the radius and rectangle queries against a full scan.
+	 * @return A boolean, true if every query found the same entities, false otherwise.
+	 */
+	public boolean testGridQueriesMatchScan() {
+		Level level = crowdedLevel(300);
+		Random rand = new Random(448);
+		for (int i=0; i<200; i++) {
+			level.tick();
+			int x = rand.nextInt(level.width << 3);
+			int y = rand.nextInt(level.height << 3);
+			int r = rand.nextInt(80);
+			HashSet<Entity> inRadius = new HashSet<Entity>();
+			HashSet<Entity> inRect = new HashSet<Entity>();
+			for (Entity e : level.entities) {
+				long dx = e.x - x;
+				long dy = e.y - y;
+				if (dx*dx + dy*dy <= (long) r*r) inRadius.add(e);
+				if (e.x >= x - r && e.x < x + r && e.y >= y - r && e.y < y + r) inRect.add(e);
+			}
+			if (!inRadius.equals(new HashSet<Entity>(level.getEntitiesInRadius(x, y, r, new ArrayList<Entity>())))) {
+				return false;
+			}
+			if (!inRect.equals(new HashSet<Entity>(level.getEntitiesInRect(x - r, y - r, x + r, y + r, new ArrayList<Entity>())))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests that an entity moved to another level is only found on the new level, even after its position was changed directly.
+	 * @return A boolean, true if the entity is found on the new level only, false otherwise.
+	 */
+	public boolean testGridFollowsTransfers() {
+		Level from = new Level("/res/levels/main_level.png", null, true);
+		Level to = new Level("/res/levels/combat_level.png", null, false);
+		Orc orc = new Orc(from, 100, 100);
+		Orc other = new Orc(to, 24, 40);
+		from.addEntity(orc);
+		to.addEntity(other);
+		orc.x = 20;
+		orc.y = 40;
+		to.addEntity(from.removeEntity(orc));
+		if (from.getTouching(other) != null || to.getTouching(other) != orc) {
+			return false;
+		}
+		to.clearEntities();
+		return to.getTouching(orc) == null && to.getEntitiesInRadius(0, 0, 1000, new ArrayList<Entity>()).isEmpty();
+	}
+
+	/**
+	 * Tests that the player touches pickups, pads and enemies, that enemies ignore pickups, and that torches touch nothing.
+	 * @return A boolean, true if every entity touches what its layer mask allows, false otherwise.
+	 */
+	public boolean testCollisionLayers() {
+		Level level = new Level("/res/levels/combat_level.png", null, false);
+		Player player = new Player(level, 40, 40, null);
+		Item item = new Item(level, "Helmet", "Of doom!", 1, 1, 1);
+		HealthPad pad = new HealthPad(level, 100, 40);
+		Torch torch = new Torch(level, 40, 40);
+		Orc orc = new Orc(level, 0, 0);
+		level.addEntity(torch);
+		level.addEntity(player);
+		level.addEntity(item);
+		level.addEntity(pad);
+		level.addEntity(orc);
+
+		item.x = 47;	// Hit circles of radius 4 touch when less than 8 apart
+		item.y = 40;
+		level.entityMoved(item);
+		if (level.getTouching(player) != item || level.getTouching(torch) != null) return false;
+
+		item.x = 48;
+		level.entityMoved(item);
+		if (level.getTouching(player) != null) return false;
+
+		orc.x = 100;
+		orc.y = 44;
+		level.entityMoved(orc);
+		player.x = 100;
+		player.y = 40;
+		level.entityMoved(player);
+		if (level.getTouching(player) != pad) return false;	// The pad was added to the level before the orc
+
+		orc.x = 48;
+		orc.y = 40;
+		level.entityMoved(orc);
+		return level.getTouching(orc) == null && level.getTouching(player) == pad;
+	}
+
+	/**
+	 * Checks one point of a hitbox the way mobs used to, tile by tile.
+	 * @param level 	Level the mob is on.
+	 * @param mob 		The mob that would move.
+	 * @param orc 		True if the mob is an orc and can not walk on wood.
+	 * @param xa 		The x direction of the move.
+	 * @param ya 		The y direction of the move.
+	 * @param px 		The x offset of the point from the mob.
+	 * @param py 		The y offset of the point from the mob.
+	 * @return A boolean, true if the point would move onto a blocking tile, false otherwise.
+	 */
+	private boolean probe(Level level, Mob mob, boolean orc, int xa, int ya, int px, int py) {
+		Tile lastTile = level.getTile((mob.x + px)>>3, (mob.y + py)>>3);
+		Tile newTile = level.getTile((mob.x + px + xa)>>3, (mob.y + py + ya)>>3);
+		return !lastTile.equals(newTile) && newTile.isSolid() || (orc && newTile == Tile.WOOD);
+	}
+
+	/**
+	 * Tests the swept hitbox against probing every point on the hitbox's edges, for hitboxes starting on open tiles.
+	 * @return A boolean, true if both agree on every move, false otherwise.
+	 */
+	public boolean testSweptMoveMatchesProbes() {
+		Random rand = new Random(448);
+		int[][] dirs = {{1,0},{-1,0},{0,1},{0,-1}};
+		for (Level level : new Level[] {new Level("/res/levels/main_level.png", null, true), new Level(null, null, false)}) {
+			for (int i=0; i<20000; i++) {
+				int x = rand.nextInt(level.width << 3);
+				int y = rand.nextInt(level.height << 3);
+				boolean orc = rand.nextBoolean();
+				Mob mob = orc ? new Orc(level, x, y) : new Player(level, x, y, null);
+				mob.setLevel(level);
+				int blocking = orc ? Level.TILE_SOLID | Level.TILE_BLOCKS_ORCS : Level.TILE_SOLID;
+				if (level.hasTileFlags((x-4)>>3, (y+3)>>3, (x+3)>>3, (y+7)>>3, blocking)) continue;
+
+				int[] dir = dirs[rand.nextInt(4)];
+				boolean probed = false;
+				for (int px=-4; px<=3; px++) {
+					probed |= probe(level, mob, orc, dir[0], dir[1], px, 3) || probe(level, mob, orc, dir[0], dir[1], px, 7);
+				}
+				for (int py=3; py<=7; py++) {
+					probed |= probe(level, mob, orc, dir[0], dir[1], -4, py) || probe(level, mob, orc, dir[0], dir[1], 3, py);
+				}
+				if (probed != mob.hasCollided(dir[0], dir[1])) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests that enemies in an enemy store take the same steps an orc or vampire would, including after removals.
+	 * @return A boolean, true if every step matches, false otherwise.
+	 */
+	public boolean testEnemyStoreWalksLikeMobs() {
+		Level level = new Level("/res/levels/main_level.png", null, true);
+		EnemyStore store = new EnemyStore(level, 448);
+		Random rand = new Random(448);
+		while (store.size() < 2000) {
+			int x = rand.nextInt(level.width);
+			int y = rand.nextInt(level.height);
+			if ((level.getTileFlags(x, y) & Level.TILE_SOLID) == 0 && level.getTile(x, y) != Tile.VOID) {
+				store.add(store.size() % 2 == 0 ? EnemyStore.ORC : EnemyStore.VAMPIRE, x << 3, y << 3, 1, 12);
+			}
+		}
+		Mob[] mobs = {new Orc(level, 0, 0), new Vampire(level, 0, 0)};
+		for (Mob mob : mobs) {
+			mob.setLevel(level);
+		}
+		int[] xs = new int[store.size()];
+		int[] ys = new int[store.size()];
+		for (int tick=0; tick<300; tick++) {
+			if (tick % 50 == 0) {
+				store.remove(rand.nextInt(store.size()));
+			}
+			for (int i=0; i<store.size(); i++) {
+				xs[i] = store.x[i];
+				ys[i] = store.y[i];
+			}
+			store.tickAll();
+			for (int i=0; i<store.size(); i++) {
+				Mob mob = mobs[store.getKind(i)];
+				mob.x = xs[i];
+				mob.y = ys[i];
+				int dir = store.direction[i];
+				if (dir < 4) {
+					mob.move(dir == 2 ? -1 : (dir == 3 ? 1 : 0), dir == 0 ? 1 : (dir == 1 ? -1 : 0));
+				}
+				boolean swimming = (level.getTileFlags(mob.x >> 3, mob.y >> 3) & Level.TILE_WATER) != 0;
+				if (mob.x != store.x[i] || mob.y != store.y[i] || swimming != store.isSwimming(i)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests that enemies far from the player only get coarse ticks when sleeping is on, and that they wake once the player comes near.
+	 * @return A boolean, true if the far enemies only drift until the player reaches them and the counts add up, false otherwise.
+	 */
+	public boolean testDistantEnemiesSleep() {
+		Level level = crowdedLevel(300);
+		level.setSleepEnabled(true);
+		Player player = new Player(level, 16, level.height*8/2, new InputHandler());
+		level.addEntity(player);
+
+		ArrayList<Entity> far = new ArrayList<Entity>();
+		ArrayList<Integer> farX = new ArrayList<Integer>();
+		for (Entity e : level.entities) {
+			if (e.canSleep() && e.x > 1200) {
+				far.add(e);
+				farX.add(e.x);
+			}
+		}
+		for (int tick=0; tick<100; tick++) {
+			int entities = level.entities.size();	// Fights and respawns change the count after the entities tick
+			level.tick();
+			ActivityRegions activity = level.getActivity();
+			if (activity.getActive() + activity.getAsleep() != entities || activity.getAsleep() == 0) {
+				return false;
+			}
+		}
+		int drift = 100 / ActivityRegions.COARSE_INTERVAL + 1;	// One step per coarse tick
+		for (int i=0; i<far.size(); i++) {
+			if (Math.abs(far.get(i).x - farX.get(i)) > drift) {
+				return false;
+			}
+			farX.set(i, far.get(i).x);
+		}
+
+		player.x = 1600;
+		level.entityMoved(player);
+		for (int tick=0; tick<100; tick++) {
+			level.tick();
+		}
+		for (int i=0; i<far.size(); i++) {
+			if (Math.abs(far.get(i).x - 1600) < 100 && Math.abs(far.get(i).x - farX.get(i)) > drift) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the sum of the positions of a level's entities, which changes whenever one of them moves.
+	 * @param level 	Level to sum the positions of.
+	 * @return The sum of the positions.
+	 */
+	private long positionSum(Level level) {
+		long sum = 0;
+		for (Entity e : level.entities) {
+			sum += e.x * 31 + e.y;
+		}
+		return sum;
+	}
+
+	/**
+	 * Tests that a scheduler with workers ticks every level but the held one, and only moves entities between levels at the barrier.
+	 * @return A boolean, true if every level but the held one moved and the transfer waited for the barrier, false otherwise.
+	 */
+	public boolean testSchedulerTicksEveryLevel() {
+		LevelScheduler scheduler = new LevelScheduler(2);
+		Level[] levels = new Level[6];
+		long[] sums = new long[levels.length];
+		for (int i=0; i<levels.length; i++) {
+			levels[i] = crowdedLevel(50);
+			scheduler.add(levels[i]);
+			sums[i] = positionSum(levels[i]);
+		}
+		for (int tick=0; tick<20; tick++) {
+			scheduler.tick(levels[0]);
+		}
+		for (int i=0; i<levels.length; i++) {
+			if ((positionSum(levels[i]) == sums[i]) != (i == 0)) {
+				return false;
+			}
+		}
+
+		Orc orc = levels[1].area1Orcs.get(0);
+		scheduler.transfer(orc, levels[1], levels[2]);
+		if (orc.getLevel() != levels[1] || !levels[1].entities.contains(orc)) {
+			return false;
+		}
+		scheduler.tick(null);
+		return orc.getLevel() == levels[2] && !levels[1].entities.contains(orc) && levels[2].entities.contains(orc)
+				&& levels[2].getEntitiesInRadius(orc.x, orc.y, 0, new ArrayList<Entity>()).contains(orc);
+	}
+
+	/**
+	 * Returns the position and rank of every entity on a level, in order.
+	 * @param level 	Level to describe.
+	 * @return The positions and ranks of the entities.
+	 */
+	private ArrayList<Integer> snapshot(Level level) {
+		ArrayList<Integer> state = new ArrayList<Integer>();
+		for (Entity e : level.entities) {
+			state.add(e.x);
+			state.add(e.y);
+			state.add(e instanceof Mob ? ((Mob)e).getRank() : 0);
+		}
+		return state;
+	}
+
+	/**
+	 * Tests that crowded levels with the same seed play out the same whether the entities think on the ticking thread or on pools of different sizes.
+	 * @return A boolean, true if every level ends up the same, false otherwise.
+	 */
+	public boolean testThinkingIsDeterministic() {
+		ForkJoinPool[] pools = {null, new ForkJoinPool(1), new ForkJoinPool(4)};
+		ArrayList<Integer> expected = null;
+		for (ForkJoinPool pool : pools) {
+			Level level = crowdedLevel(2000);
+			level.setSeed(448);
+			level.setThinkPool(pool);
+			for (int tick=0; tick<200; tick++) {
+				level.tick();
+			}
+			ArrayList<Integer> state = snapshot(level);
+			if (expected == null) {
+				expected = state;
+			} else if (!expected.equals(state)) {
+				return false;
+			}
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests that orcs leave the area they were added to however far they wandered, that every entity knows its slot, and that changes made mid tick wait for the tick to end.
+	 * @return A boolean, true if the entity list and areas stay in step, false otherwise.
+	 */
+	public boolean testRemovalKeepsSlotsAndAreas() {
+		Level level = crowdedLevel(0);
+		Orc wanderer = level.area1Orcs.get(0);
+		wanderer.x = 100 * 8;
+		if (level.removeEntity(wanderer) != wanderer || level.area1Orcs.contains(wanderer) || level.area2Orcs.contains(wanderer)
+				|| level.contains(wanderer) || level.removeEntity(wanderer) != null) {
+			return false;
+		}
+
+		final Orc replacement = new Orc(level, 20 * 8, 20 * 8);
+		final int[] sizeDuringTick = new int[1];
+		Orc leaver = new Orc(level, 30 * 8, 20 * 8) {
+			public void tick() {
+				super.tick();
+				if (getLevel().removeEntity(this) == this) {
+					getLevel().addEntity(replacement);
+					sizeDuringTick[0] = getLevel().entities.size();
+				}
+			}
+		};
+		level.addEntity(leaver);
+		int before = level.entities.size();
+		level.tick();
+		if (sizeDuringTick[0] != before || level.contains(leaver) || !level.contains(replacement) || level.area1Orcs.contains(leaver)
+				|| replacement.pendingLevel != null) {
+			return false;
+		}
+		for (int i=0; i<level.entities.size(); i++) {
+			if (level.entities.get(i).levelSlot != i) {
+				return false;
+			}
+		}
+		for (Orc orc : level.area1Orcs) {
+			if (level.area1Orcs.get(orc.areaSlot) != orc) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests that only entities near the screen are rendered, from the top of the screen down.
+	 * @return A boolean, true if the off screen orc is skipped and the others draw top first, false otherwise.
+	 */
+	public boolean testRenderCullsAndSortsByDepth() {
+		Level level = new Level("/res/levels/main_level.png", null, true);
+		final ArrayList<Integer> order = new ArrayList<Integer>();
+		int[][] positions = {{50, 100}, {2000, 2000}, {80, 40}, {120, 100}, {10, 41}};
+		for (int[] p : positions) {
+			level.addEntity(new Orc(level, p[0], p[1]) {
+				public void render(Screen screen, int x, int y) {
+					order.add(x);
+				}
+			});
+		}
+		level.renderEntities(new Screen(Game.WIDTH, Game.HEIGHT, new SpriteSheet("/res/sprite_sheet.png")));
+		return level.getDrawn() == 4 && level.getCulled() == 1 && order.equals(Arrays.asList(80, 10, 50, 120));
+	}
+
+	/**
+	 * Tests that the orcs counted in each quadrant of each area match where the area's orcs are after they wander, fight and respawn, and that respawned orcs stand on grass.
+	 * @return A boolean, true if the counts match a scan of the area lists, false otherwise.
+	 */
+	public boolean testQuadrantCountsFollowOrcs() {
+		Level level = crowdedLevel(0);
+		for (int tick=0; tick<300; tick++) {
+			level.tick();
+		}
+		int[] boundaries = {33, 117, 200};
+		ArrayList<ArrayList<Orc>> areas = new ArrayList<ArrayList<Orc>>(Arrays.asList(level.area1Orcs, level.area2Orcs, level.area3Orcs));
+		for (int area=1; area<=3; area++) {
+			int[] counts = new int[4];
+			for (Orc orc : areas.get(area-1)) {
+				counts[(orc.x < boundaries[area-1]*8 ? 0 : 1) + (orc.y < 32*8 ? 0 : 2)]++;
+			}
+			for (int quadrant=0; quadrant<4; quadrant++) {
+				if (counts[quadrant] != level.getQuadrantPopulation(area, quadrant)) {
+					return false;
+				}
+			}
+		}
+		int before = level.entities.size();
+		level.respawnOrcs(level.area2Orcs, 117, 5);
+		Entity orc = level.entities.get(before);
+		return level.entities.size() == before + 1 && level.getTile(orc.x >> 3, orc.y >> 3).getId() == 2;
+	}
+
+	/**
+	 * Tests that an orc given back to a pool after a life on a level comes out of the pool the same as a new orc.
+	 * @return A boolean, true if the reused orc matches a new one and the pool counts it, false otherwise.
+	 */
+	public boolean testPooledOrcsComeBackNew() {
+		EntityPool<Orc> pool = new EntityPool<Orc>("Orc", 1, new EntityPool.Factory<Orc>() {
+			public Orc create() {
+				return new Orc(null, 0, 0);
+			}
+		});
+		Level first = crowdedLevel(0);
+		Orc orc = pool.acquire();
+		orc.reset(first, 30 * 8, 20 * 8);
+		first.addEntity(orc);
+		for (int tick=0; tick<50; tick++) {
+			first.tick();
+		}
+		orc.rankUp();
+		orc.takeDamage(9);
+		first.removeEntity(orc);
+		if (!pool.release(orc) || pool.release(orc) || pool.release(new Orc(null, 0, 0)) || pool.getDropped() != 1) {
+			return false;
+		}
+
+		Level second = new Level("/res/levels/main_level.png", null, true);
+		Orc reused = pool.acquire();
+		reused.reset(second, 40, 48);
+		Orc fresh = new Orc(second, 40, 48);
+		return reused == orc && !reused.pooled && pool.getCreated() == 1 && pool.getReused() == 1
+				&& reused.x == fresh.x && reused.y == fresh.y && reused.prevX == fresh.prevX
+				&& reused.getLevel() == second && reused.getPrevLevel() == null
+				&& reused.getRank() == fresh.getRank() && reused.getCurrentHealth() == fresh.getCurrentHealth()
+				&& reused.getMaxHealth() == fresh.getMaxHealth() && reused.getDexterity() == fresh.getDexterity()
+				&& reused.levelSlot == -1 && reused.gridCell == -1 && reused.grid == null && reused.area == 0 && reused.quadrant == -1
+				&& reused.getCollisionLayer() == fresh.getCollisionLayer() && reused.getCollisionMask() == fresh.getCollisionMask();
+	}
+
+	/**
+	 * Steps a cave map cell by cell, counting cells off the map as live, the way dungeons used to be generated.
+	 * @param map 	The map, indexed [x][y].
+	 * @return The next generation of the map.
+	 */
+	private boolean[][] lifeStep(boolean[][] map) {
+		int width = map.length;
+		int height = map[0].length;
+		boolean[][] next = new boolean[width][height];
+		for (int y=0; y<height; y++) {
+			for (int x=0; x<width; x++) {
+				int neighbours = 0;
+				for (int j=-1; j<=1; j++) {
+					for (int i=-1; i<=1; i++) {
+						if ((i != 0 || j != 0) && (x+i < 0 || y+j < 0 || x+i >= width || y+j >= height || map[x+i][y+j])) {
+							neighbours++;
+						}
+					}
+				}
+				next[x][y] = map[x][y] ? neighbours >= 2 : neighbours > 3;
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * Tests that the bit packed cave automaton steps the same as stepping cell by cell, for widths inside, on and across the 64 bit words.
+	 * @return A boolean, true if every cell matches after every step, false otherwise.
+	 */
+	public boolean testCaveAutomatonMatchesCellByCell() {
+		Random rand = new Random(448);
+		int[][] sizes = {{5, 7}, {63, 20}, {64, 64}, {65, 3}, {130, 33}};
+		for (int[] size : sizes) {
+			int width = size[0];
+			int height = size[1];
+			CaveAutomaton cave = new CaveAutomaton(width, height);
+			boolean[][] map = new boolean[width][height];
+			for (int y=0; y<height; y++) {
+				for (int x=0; x<width; x++) {
+					map[x][y] = rand.nextInt(100) < 35;
+					cave.set(x, y, map[x][y]);
+				}
+			}
+			for (int step=0; step<4; step++) {
+				cave.step();
+				map = lifeStep(map);
+				for (int y=0; y<height; y++) {
+					for (int x=0; x<width; x++) {
+						if (cave.get(x, y) != map[x][y]) {
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests that generated dungeons of many sizes can be walked from the start opening to the end opening in one pass.
+	 * @return A boolean, true if every dungeon joins its openings, false otherwise.
+	 */
+	public boolean testDungeonsJoinStartToEnd() {
+		int[][] sizes = {{64, 64}, {8, 6}, {20, 12}, {300, 40}, {40, 300}};
+		for (int[] size : sizes) {
+			for (int trial=0; trial<10; trial++) {
+				Level level = new Level(size[0], size[1]);
+				int width = level.width;
+				boolean[] reached = new boolean[width * level.height];
+				int[] queue = new int[width * level.height];
+				int tail = 0;
+				queue[tail++] = level.getStart() * width;
+				reached[level.getStart() * width] = true;
+				for (int head=0; head<tail; head++) {
+					int x = queue[head] % width;
+					int y = queue[head] / width;
+					int[][] steps = {{x-1, y}, {x+1, y}, {x, y-1}, {x, y+1}};
+					for (int[] step : steps) {
+						if (level.getTile(step[0], step[1]).getId() == 2 && !reached[step[0] + step[1] * width]) {
+							reached[step[0] + step[1] * width] = true;
+							queue[tail++] = step[0] + step[1] * width;
+						}
+					}
+				}
+				if (!reached[(width - 1) + level.getEnd() * width] || level.getCaveRegions() < 1 || level.getGenerationTime() <= 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,166 @@
+package bgibbons.game;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import bgibbons.game.graphics.Colors;
+import bgibbons.game.graphics.Font;
+import bgibbons.game.graphics.Screen;
+import bgibbons.game.graphics.SpriteCache;
+import bgibbons.game.graphics.SpriteSheet;
+import bgibbons.game.level.Level;
+
+/**
+ * Testing class for testing the screen's sprite rendering against golden frames.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class Test_Screen {
+
+	private SpriteSheet sheet = new SpriteSheet("/res/sprite_sheet.png");
+
+	/**
+	 * Screen that renders sprites with the original per-pixel loop, used to produce golden frames.
+	 */
+	private class GoldenScreen extends Screen {
+
+		/**
+		 * Constructor for the GoldenScreen object.
+		 * @param sheet 	Sprite sheet to be used.
+		 */
+		public GoldenScreen(SpriteSheet sheet) {
+			super(Game.WIDTH, Game.HEIGHT, sheet);
+		}
+
+		/**
+		 * Renders to the screen one pixel at a time, checking bounds and mirroring for each.
+		 */
+		public void render(int xPos, int yPos, int tile, int color, int mirrorDir, int scale) {
+			xPos -= xOffset;
+			yPos -= yOffset;
+
+			boolean mirrorX = (mirrorDir & BIT_MIRROR_X) > 0;
+			boolean mirrorY = (mirrorDir & BIT_MIRROR_Y) > 0;
+
+			int scaleMap = scale-1;
+			int xTile = tile % 32;
+			int yTile = tile / 32;
+			int tileOffset = (xTile << 3) + (yTile << 3) * sheet.width;
+
+			for (int y = 0; y<8; y++) {
+				int ySheet = y;
+				if (mirrorY) ySheet = 7-y;
+
+				int yPixel = y + yPos + (y * scaleMap) - ((scaleMap << 3)/2);
+
+				for (int x=0; x<8; x++) {
+					int xSheet = x;
+					if (mirrorX) xSheet = 7-x;
+
+					int xPixel = x + xPos + (x * scaleMap) - ((scaleMap << 3)/2);
+
+					int col = (color >> (sheet.pixels[xSheet + ySheet * sheet.width + tileOffset] * 8)) & 255;
+
+					if (col < 255) {
+						for (int yScale=0; yScale < scale; yScale++) {
+							if (yPixel + yScale < 0 || yPixel + yScale >= height) continue;
+
+							for (int xScale=0; xScale < scale; xScale++) {
+								if (xPixel + xScale < 0 || xPixel + xScale >= width) continue;
+
+								pixels[(xPixel + xScale) + (yPixel + yScale) * width] = (byte) col;
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs all the tests.
+	 */
+	public void run() {
+		System.out.println("---------Starting Screen Testing Suite---------");
+		System.out.println("testCacheMissesMatchGolden - " + testCacheMissesMatchGolden());
+		System.out.println("testSpriteCacheMatchesGolden - " + testSpriteCacheMatchesGolden());
+		System.out.println("testLevelFrameMatchesGolden - " + testLevelFrameMatchesGolden());
+	}
+
+	/**
+	 * Renders the same random sprites, mirrors, scales and clipped positions to a screen and the golden screen.
+	 * @param screen 	Screen to compare with the golden screen.
+	 * @return A boolean, true if every frame is pixel identical, false otherwise.
+	 */
+	private boolean matchesGolden(Screen screen) {
+		GoldenScreen golden = new GoldenScreen(sheet);
+		Random rand = new Random(448);
+		for (int frame=0; frame<50; frame++) {
+			screen.setOffset(rand.nextInt(64) - 32, rand.nextInt(64) - 32);
+			golden.setOffset(screen.xOffset, screen.yOffset);
+			for (int i=0; i<2000; i++) {
+				int x = rand.nextInt(screen.width + 64) - 32 + screen.xOffset;
+				int y = rand.nextInt(screen.height + 64) - 32 + screen.yOffset;
+				int tile = rand.nextInt(32*32);
+				int color = Colors.get(rand.nextInt(7)*111-111, rand.nextInt(7)*111-111, rand.nextInt(7)*111-111, rand.nextInt(7)*111-111);
+				int mirrorDir = rand.nextInt(4);
+				int scale = 1 + rand.nextInt(3);
+				screen.render(x, y, tile, color, mirrorDir, scale);
+				golden.render(x, y, tile, color, mirrorDir, scale);
+			}
+			if (!Arrays.equals(screen.pixels, golden.pixels)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests sprites resolved on cache misses, with a cache so small nearly every render misses and evicts.
+	 * @return A boolean, true if the frames match the golden frames, false otherwise.
+	 */
+	public boolean testCacheMissesMatchGolden() {
+		Screen screen = new Screen(Game.WIDTH, Game.HEIGHT, sheet);
+		screen.spriteCache = new SpriteCache(sheet, 4);
+		return matchesGolden(screen);
+	}
+
+	/**
+	 * Tests the cached sprite blitter.
+	 * @return A boolean, true if the frames match the golden frames, false otherwise.
+	 */
+	public boolean testSpriteCacheMatchesGolden() {
+		return matchesGolden(new Screen(Game.WIDTH, Game.HEIGHT, sheet));
+	}
+
+	/**
+	 * Tests a walk across the main level with its entities and text against the golden frames.
+	 * @return A boolean, true if every frame matches the golden frame, false otherwise.
+	 */
+	public boolean testLevelFrameMatchesGolden() {
+		Level level = new Level("/res/levels/main_level.png", "/res/entities/main_level.png", true);
+		Screen screen = new Screen(Game.WIDTH, Game.HEIGHT, sheet);
+		GoldenScreen golden = new GoldenScreen(sheet);
+		for (int frame=0; frame<200; frame++) {
+			int xOffset = 300 + frame * 3;
+			int yOffset = 150 + frame % 20;
+			level.renderTiles(screen, xOffset, yOffset);
+			level.renderEntities(screen);
+			Font.render("Rank:" + frame, screen, screen.xOffset, screen.yOffset, Colors.get(-1,-1,-1,000), 1);
+
+			golden.setOffset(screen.xOffset, screen.yOffset);
+			for (int y=(screen.yOffset >> 3); y<(screen.yOffset + golden.height>>3) + 1; y++) {
+				for (int x=(screen.xOffset >> 3); x<(screen.xOffset + golden.width>>3) + 1; x++) {
+					level.getTile(x,y).render(golden, level, x<<3, y<<3);
+				}
+			}
+			level.renderEntities(golden);
+			Font.render("Rank:" + frame, golden, golden.xOffset, golden.yOffset, Colors.get(-1,-1,-1,000), 1);
+
+			if (!Arrays.equals(screen.pixels, golden.pixels)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
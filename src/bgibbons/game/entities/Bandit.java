@@ -5,8 +5,6 @@ import bgibbons.game.graphics.Font;
 import bgibbons.game.graphics.Screen;
 import bgibbons.game.level.Level;
 
-import java.util.Random;
-
 /**
  * An extension of the Enemy class for a bandit.
  * @author Chris Porras based on Player.java
@@ -36,17 +34,15 @@ public class Bandit extends Enemy{
     vitality ++;
   }
 
-  public void move() {
-    Random rand = new Random();
-
+  protected void chooseStep() {
     if(stepsTaken >= stop){
       stepsTaken = 0;
-      direction = rand.nextInt(10);
+      direction = nextRandom(10);
       if(direction<4){
-        stop = rand.nextInt(10)+5;
+        stop = nextRandom(10)+5;
       }
       else{
-        stop = rand.nextInt(30)+11;
+        stop = nextRandom(30)+11;
       }
     }
 
@@ -75,18 +71,7 @@ public class Bandit extends Enemy{
       stepsTaken++;
     }
 
-    if (xa != 0 || ya != 0) {
-      move(xa, ya);
-      isMoving = true;
-    } else {
-      isMoving = false;
-    }
-
-    if (level.getTile(this.x >> 3, this.y >> 3).getId() == 3) {
-      isSwimming = true;
-    }
-    if  (isSwimming && level.getTile(this.x >> 3, this.y >> 3).getId() != 3) {
-      isSwimming = false;
-    }
+    intentX = xa;
+    intentY = ya;
   }
 }
\ No newline at end of file
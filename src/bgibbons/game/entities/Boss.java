@@ -32,7 +32,7 @@ public class Boss extends Enemy{
     this.currentHealth+=5;
   }
 
-  public void move(){
+  protected void chooseStep(){
     
   }
 }
\ No newline at end of file
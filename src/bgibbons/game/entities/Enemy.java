@@ -17,6 +17,9 @@ public abstract class Enemy extends Mob {
 	protected int yTile;
 	protected int scale;
 	protected int color;
+	protected int intentX;		// Step chosen by the last think, applied by the next tick
+	protected int intentY;
+	private boolean thought;	// Whether the step for the next tick has been chosen
 
 
 	/**
@@ -34,11 +37,40 @@ public abstract class Enemy extends Mob {
 	 * @param scale 	The scale of the enemy
 	 */
 	public Enemy(Level level, int x, int y, int xTile, int yTile, int color, int maxHealth, int speed, int rank, int maxExp, int scale) {
-		super(level, "Enemy", x, y, maxHealth, speed, rank, maxExp);
+		super(level);
+		initEnemy(x, y, xTile, yTile, color, maxHealth, speed, rank, maxExp, scale);
+	}
+
+	/**
+	 * Constructor for an Enemy object that initializes itself.
+	 * @param level 	Level for the Enemy to be added to.
+	 */
+	protected Enemy(Level level) {
+		super(level);
+	}
+
+	/**
+	 * Initializes the enemy's stats, sprite and plans, or resets them for a pooled enemy.
+	 * @param x 		The x coordinate the Enemy will start at.
+	 * @param y 		The y coordinate the Enemy will start at.
+	 * @param xTile 	The x coordinate for the sprite to start at.
+	 * @param yTile 	The y coordinate for the sprite to start at.
+	 * @param color 	The color to apply to the enemy sprite.
+	 * @param maxHealth The maximum health for the enemy.
+	 * @param speed 	The speed of the enemy.
+	 * @param rank 		The starting rank of the enemy.
+	 * @param maxExp	The maximum experience of the enemy.
+	 * @param scale 	The scale of the enemy
+	 */
+	protected void initEnemy(int x, int y, int xTile, int yTile, int color, int maxHealth, int speed, int rank, int maxExp, int scale) {
+		initMob("Enemy", x, y, maxHealth, speed, rank, maxExp);
 		this.xTile = xTile;
 		this.yTile = yTile;
 		this.color = color;
 		this.scale = scale;
+		this.intentX = 0;
+		this.intentY = 0;
+		this.thought = false;
 	}
 
 	/**
@@ -50,16 +82,65 @@ public abstract class Enemy extends Mob {
 			rankUp();
 		}
 
-		move();
+		if (!thought) { // Ticked on its own, outside a level's think phase
+			think();
+		}
+		thought = false;
+		act();
 
 		tickCount++;
 	}
 
+	/**
+	 * Chooses the Enemy's step for the next tick.
+	 */
+	public void think() {
+		chooseStep();
+		thought = true;
+	}
+
+	/**
+	 * Takes the step chosen by the last think, colliding with the level's tiles.
+	 */
+	protected void act() {
+		if (intentX != 0 || intentY != 0) {
+			move(intentX, intentY);
+			isMoving = true;
+		} else {
+			isMoving = false;
+		}
+
+		if ((level.getTileFlags(this.x >> 3, this.y >> 3) & Level.TILE_WATER) != 0) {
+			isSwimming = true;
+		}
+		if  (isSwimming && (level.getTileFlags(this.x >> 3, this.y >> 3) & Level.TILE_WATER) == 0) {
+			isSwimming = false;
+		}
+	}
+
+	/**
+	 * Returns that enemies may sleep, as they only wander while the player is away.
+	 * @return True.
+	 */
+	public boolean canSleep() {
+		return true;
+	}
+
+	/**
+	 * Returns how far from its position the enemy's sprite can reach, which grows with its scale.
+	 * @return The distance in pixels.
+	 */
+	public int getRenderReach() {
+		return 8 * scale + 8;
+	}
+
 	/**
 	 * Renders the Enemy to the screen
 	 * @param screen 	The screen to render the Enemy to.
+	 * @param x 		The x coordinate to draw the Enemy at.
+	 * @param y 		The y coordinate to draw the Enemy at.
 	 */
-	public void render(Screen screen) {
+	public void render(Screen screen, int x, int y) {
 		int walkingSpeed = 4;
 		int flipTop = (numSteps >> walkingSpeed) & 1;
 		int flipBottom = (numSteps >> walkingSpeed) & 1;
@@ -115,51 +196,14 @@ public abstract class Enemy extends Mob {
 		}
 	}
 
-	/**
-	 * Checks if the Enemy will collide when moving.
-	 * @param xa 	The x direction the Enemy wants to move.
-	 * @param ya 	The y direction the Enemy wants to move.
-	 */
-	public boolean hasCollided(int xa, int ya) {
-		int xMin = -4;
-		int xMax = 3;
-		int yMin = 3;
-		int yMax = 7;
-
-		for (int x=xMin; x<xMax; x++) {
-			if (isSolidTile(xa, ya, x, yMin)) {
-				return true;
-			}
-		}
-
-		for (int x=xMin; x<xMax; x++) {
-			if (isSolidTile(xa, ya, x, yMax)) {
-				return true;
-			}
-		}
-
-		for (int y=yMin; y<yMax; y++) {
-			if (isSolidTile(xa, ya, xMin, y)) {
-				return true;
-			}
-		}
-
-		for (int y=yMin; y<yMax; y++) {
-			if (isSolidTile(xa, ya, xMax, y)) {
-				return true;
-			}
-		}
-
-
-		return false;
-	}
 	/**
 	 * Level up the mob once max exp is reached.
 	 */
 	public abstract void rankUp();
 	
-	/*
-	* Method to determine the movement of enemies
-	*/
-	public abstract void move();
+	/**
+	 * Chooses the direction the enemy steps next tick, setting intentX and intentY.
+	 * Runs in the think phase, so it may only change the enemy's own fields.
+	 */
+	protected abstract void chooseStep();
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package bgibbons.game.entities;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import bgibbons.game.graphics.Screen;
+import bgibbons.game.level.ActivityRegions;
+import bgibbons.game.level.Level;
+
+/**
+ * Class to hold a large population of wandering enemies as parallel arrays instead of one object each.
+ * The enemies walk the same way as Orc and Vampire, but only collide with tiles and never touch other entities.
+ * Enemies in sleeping regions of the level are skipped, as other enemies are.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class EnemyStore {
+
+	public static final int ORC = 0;		// Kinds of enemy the store can hold
+	public static final int VAMPIRE = 1;
+
+	private static final int HITBOX_X0 = -4;	// Tile collision box around an enemy's position, the same as Mob's
+	private static final int HITBOX_X1 = 3;
+	private static final int HITBOX_Y0 = 3;
+	private static final int HITBOX_Y1 = 7;
+	private static final int FLAG_MOVING = 1;	// Bits of an enemy's state flags
+	private static final int FLAG_SWIMMING = 2;
+
+	private Level level;
+	private Random rand;
+	private int size;				// Number of enemies in the store
+	private int tickCount;			// Ticks since the store was made, drives the swimming animation
+
+	public int[] x;
+	public int[] y;
+	public int[] rank;
+	public int[] health;
+	public int[] direction;			// Walk direction picked by the AI, 0 down, 1 up, 2 left, 3 right, anything else standing
+	public int[] stepsTaken;		// Steps taken in the current direction
+	public int[] stop;				// Steps to take before picking a new direction
+	private byte[] kind;
+	private byte[] movingDir;		// Facing, 0 up, 1 down, 2 left, 3 right, as on Mob
+	private byte[] lastDir;			// Facing before the last step
+	private byte[] flags;
+	private int[] numSteps;			// Steps attempted, drives the walking animation
+
+	private Enemy[] sprites;		// One enemy of each kind, posed as each stored enemy in turn to render it
+
+	/**
+	 * Constructor for the EnemyStore object.
+	 * @param level 	Level the enemies walk on.
+	 * @param seed 		Seed for the enemies' random walks.
+	 */
+	public EnemyStore(Level level, long seed) {
+		this.level = level;
+		this.rand = new Random(seed);
+		this.size = 0;
+		this.tickCount = 0;
+		resize(64);
+	}
+
+	/**
+	 * Grows or allocates the arrays to hold a number of enemies.
+	 * @param capacity 	The number of enemies to hold.
+	 */
+	private void resize(int capacity) {
+		x = x == null ? new int[capacity] : Arrays.copyOf(x, capacity);
+		y = y == null ? new int[capacity] : Arrays.copyOf(y, capacity);
+		rank = rank == null ? new int[capacity] : Arrays.copyOf(rank, capacity);
+		health = health == null ? new int[capacity] : Arrays.copyOf(health, capacity);
+		direction = direction == null ? new int[capacity] : Arrays.copyOf(direction, capacity);
+		stepsTaken = stepsTaken == null ? new int[capacity] : Arrays.copyOf(stepsTaken, capacity);
+		stop = stop == null ? new int[capacity] : Arrays.copyOf(stop, capacity);
+		kind = kind == null ? new byte[capacity] : Arrays.copyOf(kind, capacity);
+		movingDir = movingDir == null ? new byte[capacity] : Arrays.copyOf(movingDir, capacity);
+		lastDir = lastDir == null ? new byte[capacity] : Arrays.copyOf(lastDir, capacity);
+		flags = flags == null ? new byte[capacity] : Arrays.copyOf(flags, capacity);
+		numSteps = numSteps == null ? new int[capacity] : Arrays.copyOf(numSteps, capacity);
+	}
+
+	/**
+	 * Adds an enemy to the store.
+	 * @param kind 		The kind of enemy, ORC or VAMPIRE.
+	 * @param x 		The x coordinate the enemy will start at.
+	 * @param y 		The y coordinate the enemy will start at.
+	 * @param rank 		The rank of the enemy.
+	 * @param health 	The health of the enemy.
+	 * @return The index of the enemy, valid until an enemy is removed.
+	 */
+	public int add(int kind, int x, int y, int rank, int health) {
+		if (size == this.x.length) {
+			resize(size * 2);
+		}
+		int i = size++;
+		this.kind[i] = (byte) kind;
+		this.x[i] = x;
+		this.y[i] = y;
+		this.rank[i] = rank;
+		this.health[i] = health;
+		this.direction[i] = kind == ORC ? 4 : 0;
+		this.stepsTaken[i] = 0;
+		this.stop[i] = 0;
+		this.movingDir[i] = 1;
+		this.lastDir[i] = 1;
+		this.flags[i] = 0;
+		this.numSteps[i] = 0;
+		return i;
+	}
+
+	/**
+	 * Removes an enemy by moving the last enemy into its place.
+	 * @param i 	The index of the enemy to remove.
+	 */
+	public void remove(int i) {
+		int last = --size;
+		x[i] = x[last];
+		y[i] = y[last];
+		rank[i] = rank[last];
+		health[i] = health[last];
+		direction[i] = direction[last];
+		stepsTaken[i] = stepsTaken[last];
+		stop[i] = stop[last];
+		kind[i] = kind[last];
+		movingDir[i] = movingDir[last];
+		lastDir[i] = lastDir[last];
+		flags[i] = flags[last];
+		numSteps[i] = numSteps[last];
+	}
+
+	/**
+	 * Removes every enemy from the store.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of enemies in the store.
+	 * @return The number of enemies in the store.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the kind of an enemy.
+	 * @param i 	The index of the enemy.
+	 * @return The kind of the enemy, ORC or VAMPIRE.
+	 */
+	public int getKind(int i) {
+		return kind[i];
+	}
+
+	/**
+	 * Returns whether an enemy is in water.
+	 * @param i 	The index of the enemy.
+	 * @return A boolean, true if the enemy is swimming, false otherwise.
+	 */
+	public boolean isSwimming(int i) {
+		return (flags[i] & FLAG_SWIMMING) != 0;
+	}
+
+	/**
+	 * Walks every enemy one step, picking new directions the way Orc.move and Vampire.move do.
+	 */
+	public void tickAll() {
+		ActivityRegions activity = level.getActivity();
+		for (int i=0; i<size; i++) {
+			if (activity != null) {
+				boolean ticked = activity.shouldTick(x[i], y[i], i);
+				activity.count(ticked);
+				if (!ticked) {
+					continue;
+				}
+			}
+			if (stepsTaken[i] >= stop[i]) {
+				stepsTaken[i] = 0;
+				if (kind[i] == ORC) {
+					stop[i] = rand.nextInt(20)+11;
+					direction[i] = rand.nextInt(5);
+				} else {
+					direction[i] = rand.nextInt(10);
+					stop[i] = direction[i] < 4 ? rand.nextInt(10)+5 : rand.nextInt(30)+11;
+				}
+			}
+			stepsTaken[i]++;
+
+			int dir = direction[i];
+			int ex = x[i];
+			int ey = y[i];
+			if (dir < 4) {
+				int xa = dir == 2 ? -1 : (dir == 3 ? 1 : 0);
+				int ya = dir == 0 ? 1 : (dir == 1 ? -1 : 0);
+				int blocking = kind[i] == ORC ? Level.TILE_SOLID | Level.TILE_BLOCKS_ORCS : Level.TILE_SOLID;
+				lastDir[i] = movingDir[i];
+				numSteps[i]++;
+				if (!level.isMoveBlocked(ex + HITBOX_X0, ey + HITBOX_Y0, ex + HITBOX_X1, ey + HITBOX_Y1, xa, ya, blocking)) {
+					movingDir[i] = (byte) (ya < 0 ? 0 : (ya > 0 ? 1 : (xa < 0 ? 2 : 3)));
+					ex += xa;
+					ey += ya;
+					x[i] = ex;
+					y[i] = ey;
+				}
+			}
+
+			int state = dir < 4 ? FLAG_MOVING : 0;
+			if ((level.getTileFlags(ex >> 3, ey >> 3) & Level.TILE_WATER) != 0) {
+				state |= FLAG_SWIMMING;
+			}
+			flags[i] = (byte) state;
+		}
+		tickCount++;
+	}
+
+	/**
+	 * Renders the enemies near the screen, drawing each with a shared enemy of its kind.
+	 * @param screen 	Screen to render the enemies onto.
+	 */
+	public void render(Screen screen) {
+		if (sprites == null) {
+			sprites = new Enemy[] {new Orc(null, 0, 0), new Vampire(null, 0, 0)};
+		}
+		int x0 = screen.xOffset - 16;
+		int y0 = screen.yOffset - 16;
+		int x1 = screen.xOffset + screen.width + 16;
+		int y1 = screen.yOffset + screen.height + 16;
+		for (int i=0; i<size; i++) {
+			if (x[i] < x0 || x[i] >= x1 || y[i] < y0 || y[i] >= y1) continue;
+			Enemy e = sprites[kind[i]];
+			e.movingDir = movingDir[i];
+			e.lastDir = lastDir[i];
+			e.numSteps = numSteps[i];
+			e.isMoving = (flags[i] & FLAG_MOVING) != 0;
+			e.isSwimming = (flags[i] & FLAG_SWIMMING) != 0;
+			e.tickCount = tickCount;
+			e.render(screen, x[i], y[i]);
+		}
+	}
+}
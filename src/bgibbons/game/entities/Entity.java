@@ -2,6 +2,7 @@ package bgibbons.game.entities;
 
 import bgibbons.game.graphics.Screen;
 import bgibbons.game.level.Level;
+import bgibbons.game.level.SpatialGrid;
 
 /**
  * Basic class to handle entities on the map.
@@ -11,10 +12,29 @@ import bgibbons.game.level.Level;
  */
 public abstract class Entity {
 
+	public static final int LAYER_NONE = 0;		// Collision layers, as bits so a mask can hold several
+	public static final int LAYER_PLAYER = 1;
+	public static final int LAYER_ENEMY = 2;
+	public static final int LAYER_PICKUP = 4;
+	public static final int LAYER_PAD = 8;
+	public static final int MAX_HIT_RADIUS = 4;	// Largest hit radius of any entity, bounds how far collision queries look
+
 	public int x, y;
+	public int prevX, prevY;	// Position at the start of the last tick, used to interpolate rendering
+	public SpatialGrid grid;	// Spatial grid of the level the entity is in, maintained by the grid
+	public Entity gridPrev, gridNext;	// Neighbours in the entity's grid cell, maintained by the grid
+	public int gridCell = -1;	// Grid cell the entity is filed under, maintained by the grid
+	public long gridOrder;		// When the entity was added to its level, to break ties by age
+	public int levelSlot = -1;	// Index of the entity in its level's entity list, -1 if it is on no level, maintained by the level
+	public Level pendingLevel = null;	// Level the entity is queued to be added to at the end of its tick, maintained by the level
+	public boolean pooled = false;	// Whether the entity is waiting in a pool to be reused, maintained by the pool
 	protected Level level;
 	protected Level prevLevel;
 	protected int tickCount;
+	protected int hitRadius = 0;				// Radius of the entity's hit circle around its position
+	protected int collisionLayer = LAYER_NONE;	// Layer the entity is on
+	protected int collisionMask = LAYER_NONE;	// Layers the entity touches
+	protected long randomState;					// State of the entity's own random numbers, seeded by its level
 
 	/**
 	 * Basic constructor for an Entity object.
@@ -25,13 +45,37 @@ public abstract class Entity {
 	}
 
 	/**
-	 * Initializes the entity.
+	 * Initializes the entity, or reinitializes one taken from a pool.
+	 * Every field the entity class holds goes back to how a new entity has it, so nothing carries over from the entity's last life.
+	 * Subclasses that are pooled reset their own fields after calling this.
 	 * @param level 	The level to be added to.
 	 */
 	public final void init(Level level) {
 		this.level = level;
-		this.level = prevLevel;
+		this.prevLevel = null;
 		this.tickCount = 0;
+		this.x = 0;
+		this.y = 0;
+		this.prevX = 0;
+		this.prevY = 0;
+		this.grid = null;
+		this.gridPrev = null;
+		this.gridNext = null;
+		this.gridCell = -1;
+		this.gridOrder = 0;
+		this.levelSlot = -1;
+		this.pendingLevel = null;
+		this.hitRadius = 0;
+		this.collisionLayer = LAYER_NONE;
+		this.collisionMask = LAYER_NONE;
+		this.randomState = 0;
+	}
+
+	/**
+	 * Decides what the entity will do this tick, before any entity on the level ticks.
+	 * Entities think in parallel, so this may only change the entity's own fields and only read the level's tiles.
+	 */
+	public void think() {
 	}
 
 	/**
@@ -40,17 +84,137 @@ public abstract class Entity {
 	public abstract void tick();
 
 	/**
-	 * Checks if entity is touching other entity.
+	 * Seeds the entity's random numbers, so the same seed always gives the same choices.
+	 * @param seed 	The seed.
+	 */
+	public void seedRandom(long seed) {
+		this.randomState = seed;
+	}
+
+	/**
+	 * Returns the next of the entity's random numbers, using the splitmix64 generator.
+	 * @param bound 	The upper bound of the number, exclusive, must be positive.
+	 * @return A random number from 0 to bound-1.
+	 */
+	protected int nextRandom(int bound) {
+		randomState += 0x9E3779B97F4A7C15L;
+		long z = randomState;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		z = z ^ (z >>> 31);
+		return (int) (((z >>> 33) * bound) >>> 31);
+	}
+
+	/**
+	 * Records the current position as the position to interpolate rendering from.
+	 */
+	public void storePosition() {
+		this.prevX = x;
+		this.prevY = y;
+	}
+
+	/**
+	 * Returns the x coordinate to render at between the last two ticks.
+	 * @param alpha 	Fraction of the way from the previous tick to the current one.
+	 * @return The interpolated x coordinate, or the current one if the entity jumped.
+	 */
+	public int getRenderX(double alpha) {
+		if (Math.abs(x - prevX) > 8) {
+			return x;
+		}
+		return prevX + (int)Math.round((x - prevX) * alpha);
+	}
+
+	/**
+	 * Returns the y coordinate to render at between the last two ticks.
+	 * @param alpha 	Fraction of the way from the previous tick to the current one.
+	 * @return The interpolated y coordinate, or the current one if the entity jumped.
+	 */
+	public int getRenderY(double alpha) {
+		if (Math.abs(y - prevY) > 8) {
+			return y;
+		}
+		return prevY + (int)Math.round((y - prevY) * alpha);
+	}
+
+	/**
+	 * Checks if entity is touching other entity, which it only can if the other is on a layer in its mask.
 	 * @param entity 	Entity to compare caller to.
-	 * @return A boolean, true if entities are touching, false otherwise.
+	 * @return A boolean, true if the hit circles overlap, false otherwise.
 	 */
-	public abstract boolean isTouching(Entity entity);
+	public boolean isTouching(Entity entity) {
+		if ((collisionMask & entity.collisionLayer) == 0) {
+			return false;
+		}
+		int dx = x - entity.x;
+		int dy = y - entity.y;
+		int reach = hitRadius + entity.hitRadius;
+		return dx*dx + dy*dy < reach*reach;
+	}
+
+	/**
+	 * Returns whether the entity may skip its ticks while no player is near it.
+	 * @return A boolean, true if the entity can sleep, false if it must tick every tick.
+	 */
+	public boolean canSleep() {
+		return false;
+	}
+
+	/**
+	 * Returns whether the entity keeps the level awake around it.
+	 * @return A boolean, true if the entity wakes the regions near it, false otherwise.
+	 */
+	public boolean isActivityTrigger() {
+		return false;
+	}
+
+	/**
+	 * Returns the radius of the entity's hit circle.
+	 * @return The hit radius in pixels.
+	 */
+	public int getHitRadius() {
+		return hitRadius;
+	}
+
+	/**
+	 * Returns the collision layer the entity is on.
+	 * @return One of the LAYER constants.
+	 */
+	public int getCollisionLayer() {
+		return collisionLayer;
+	}
+
+	/**
+	 * Returns the collision layers the entity touches.
+	 * @return The LAYER constants of the layers or'ed together.
+	 */
+	public int getCollisionMask() {
+		return collisionMask;
+	}
+
+	/**
+	 * Returns how far from its position the entity's sprite can reach, so entities off the screen can be skipped.
+	 * @return The distance in pixels.
+	 */
+	public int getRenderReach() {
+		return 16;
+	}
 
 	/** 
 	 * Renders the entity.
 	 * @param screen 	Screen to render the entity to.
 	 */
-	public abstract void render(Screen screen);
+	public void render(Screen screen) {
+		render(screen, x, y);
+	}
+
+	/**
+	 * Renders the entity at a position other than its own, such as part way between ticks, without moving it.
+	 * @param screen 	Screen to render the entity to.
+	 * @param x 		The x coordinate to draw the entity at.
+	 * @param y 		The y coordinate to draw the entity at.
+	 */
+	public abstract void render(Screen screen, int x, int y);
 
 	/**
 	 * Returns level object of entity
@@ -0,0 +1,128 @@
+package bgibbons.game.entities;
+
+import java.util.ArrayList;
+
+/**
+ * Class to keep entities that have left the game so they can be reused instead of allocating new ones.
+ * Entities taken from the pool must be reset before use, and only released once nothing refers to them any more.
+ * Safe to use from several threads at once.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class EntityPool<T extends Entity> {
+
+	/**
+	 * Makes new entities for a pool when it has none to reuse.
+	 */
+	public interface Factory<T> {
+		/**
+		 * Makes a new entity.
+		 * @return The new entity.
+		 */
+		T create();
+	}
+
+	private String name;			// Name of the kind of entity pooled, for the statistics
+	private Factory<T> factory;
+	private int capacity;			// Most entities kept waiting, the rest are left to the garbage collector
+	private ArrayList<T> free = new ArrayList<T>();
+
+	private long created;			// Entities made because the pool was empty
+	private long reused;			// Entities handed out from the pool
+	private long released;			// Entities given back to the pool
+	private long dropped;			// Entities given back while the pool was full
+
+	/**
+	 * Constructor for the EntityPool object.
+	 * @param name 		Name of the kind of entity pooled.
+	 * @param capacity 	The most entities to keep waiting.
+	 * @param factory 	Makes new entities when the pool is empty.
+	 */
+	public EntityPool(String name, int capacity, Factory<T> factory) {
+		this.name = name;
+		this.capacity = capacity;
+		this.factory = factory;
+	}
+
+	/**
+	 * Takes an entity from the pool, or makes one if the pool is empty.
+	 * @return The entity, to be reset before use.
+	 */
+	public synchronized T acquire() {
+		if (free.isEmpty()) {
+			created++;
+			return factory.create();
+		}
+		reused++;
+		T entity = free.remove(free.size() - 1);
+		entity.pooled = false;
+		return entity;
+	}
+
+	/**
+	 * Gives an entity back to the pool to be reused.
+	 * @param entity 	The entity, which must not be on any level.
+	 * @return A boolean, true if the entity was kept, false if it was already in the pool or the pool is full.
+	 */
+	public synchronized boolean release(T entity) {
+		if (entity.pooled) {
+			return false;
+		}
+		released++;
+		if (free.size() >= capacity) {
+			dropped++;
+			return false;
+		}
+		entity.pooled = true;
+		free.add(entity);
+		return true;
+	}
+
+	/**
+	 * Returns the name of the kind of entity pooled.
+	 * @return The name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the number of entities waiting to be reused.
+	 * @return The number of free entities.
+	 */
+	public synchronized int getFree() {
+		return free.size();
+	}
+
+	/**
+	 * Returns the number of entities made because the pool was empty.
+	 * @return The number of entities created.
+	 */
+	public synchronized long getCreated() {
+		return created;
+	}
+
+	/**
+	 * Returns the number of entities handed out from the pool.
+	 * @return The number of entities reused.
+	 */
+	public synchronized long getReused() {
+		return reused;
+	}
+
+	/**
+	 * Returns the number of entities given back to the pool.
+	 * @return The number of entities released.
+	 */
+	public synchronized long getReleased() {
+		return released;
+	}
+
+	/**
+	 * Returns the number of entities given back while the pool was full.
+	 * @return The number of entities dropped.
+	 */
+	public synchronized long getDropped() {
+		return dropped;
+	}
+}
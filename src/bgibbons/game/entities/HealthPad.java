@@ -35,6 +35,8 @@ public class HealthPad extends Entity {
 		this.respawnRate = 60*60;
 		this.nextRespawn = 0;
 		this.color = Colors.get(-1, 000, 500, 555);
+		this.hitRadius = 4;
+		this.collisionLayer = LAYER_PAD;
 	}
 
 	/**
@@ -51,8 +53,10 @@ public class HealthPad extends Entity {
 	/**
 	 * Renders the HealthPad to the screen
 	 * @param screen 	The screen the HealthPad is to be rendered to.
+	 * @param x 		The x coordinate to draw the HealthPad at.
+	 * @param y 		The y coordinate to draw the HealthPad at.
 	 */
-	public void render(Screen screen) {
+	public void render(Screen screen, int x, int y) {
 		screen.render(x, y, tileId, color, 0x00, 1);
 	}
 
@@ -73,12 +77,4 @@ public class HealthPad extends Entity {
 		}
 	}
 
-	/**
-	 * Checks to see if the health pad is touching a given entity
-	 * @param entity 	Entity to compare health pad to
-	 * @return A boolean, true if health pad is touching entity, false otherwise.
-     */
-	public boolean isTouching(Entity entity){
-		return false;
-	}
 }
@@ -33,6 +33,21 @@ public class Item extends Entity
 	public Item(Level level, String name, String description, int dexterity, int intelligence, int vitality)
 	{
 		super(level);
+		reset(level, name, description, dexterity, intelligence, vitality);
+	}
+
+	/**
+	 * Sets the item up as a new item, so a pooled item can be reused.
+	 * @param level 	Level to add the Item to.
+	 * @param name 		The name coordinate of the item.
+	 * @param description 		The description of the Item.
+	 * @param dexterity 	Dexterity Stat of item.
+	 * @param intelligence 		Intelligence Stat of item.
+	 * @param vitality 		Vitality Stat of item.
+	 */
+	public void reset(Level level, String name, String description, int dexterity, int intelligence, int vitality)
+	{
+		init(level);
 		this.name=name;
 		this.description=description;
 		this.dexterity=dexterity;
@@ -40,6 +55,8 @@ public class Item extends Entity
 		this.vitality=vitality;
 		this.x = 17*8;
 		this.y = 8*8;
+		this.hitRadius = 4;
+		this.collisionLayer = LAYER_PICKUP;
 	}
 
 	/**
@@ -53,16 +70,14 @@ public class Item extends Entity
 	/**
 	 * Renders the item to the screen
 	 * @param screen 	The screen the item is to be rendered to.
+	 * @param x 		The x coordinate to draw the item at.
+	 * @param y 		The y coordinate to draw the item at.
 	 */
-	public void render(Screen screen) 
+	public void render(Screen screen, int x, int y) 
 	{
 		screen.render(x, y, 0+19*32, Colors.get(-1,110,320,430), 0x00, 1);
 	}
 
-	public boolean isTouching(Entity entity) {
-		return false;
-	}
-
 	/**
 	*Returns Dexterity variable
 	*@return A integer of the dexterity value.
@@ -2,9 +2,6 @@ package bgibbons.game.entities;
 
 import bgibbons.game.abilities.*;
 import bgibbons.game.level.Level;
-import bgibbons.game.level.tiles.Tile;
-
-import java.lang.Math;
 
 /**
  * A class to extend entities to moving objects.
@@ -44,6 +41,11 @@ public abstract class Mob extends Entity {
 	protected int movingDir = 1; //0 is up, 1 is down, 2 is left, 3 and right
 	protected int lastDir = 1;
 	protected int scale = 1;
+	protected int hitboxX0 = -4;	// Tile collision box around the mob's position, edges inclusive
+	protected int hitboxX1 = 3;
+	protected int hitboxY0 = 3;
+	protected int hitboxY1 = 7;
+	protected int blockingTiles = Level.TILE_SOLID;	// TILE flags the mob can not move onto
 
 	/**
 	 * Constructor for the Mob object.
@@ -58,6 +60,28 @@ public abstract class Mob extends Entity {
 	 */
 	public Mob(Level level, String name, int x, int y, int maxHealth, int speed, int rank, int maxExp) {
 		super(level);
+		initMob(name, x, y, maxHealth, speed, rank, maxExp);
+	}
+
+	/**
+	 * Constructor for a Mob object that initializes its own stats.
+	 * @param level 		Level to for the mob to be added to.
+	 */
+	protected Mob(Level level) {
+		super(level);
+	}
+
+	/**
+	 * Initializes the mob's stats, movement and collision, or resets them for a pooled mob.
+	 * @param name 			Name of the mob.
+	 * @param x 			The x coordinate of the mob.
+	 * @param y 			The y coordinate of the mob.
+	 * @param maxHealth 	The max health the mob is to have, whole numbers preferred.
+	 * @param speed 		The speed of the mob.
+	 * @param rank 			The starting rank of the mob.
+	 * @param maxExp 		The exp needed for the mob to rank up again.
+	 */
+	protected void initMob(String name, int x, int y, int maxHealth, int speed, int rank, int maxExp) {
 		this.name = name;
 		this.rank = rank;
 		this.killCount = 0;
@@ -76,6 +100,18 @@ public abstract class Mob extends Entity {
 		this.baseDex = 5;
 		this.baseInt = 5;
 		this.baseVit = 5;
+		this.hitRadius = 4;
+		this.collisionLayer = LAYER_ENEMY;
+		this.collisionMask = LAYER_PLAYER | LAYER_ENEMY;
+		this.numSteps = 0;
+		this.movingDir = 1;
+		this.lastDir = 1;
+		this.scale = 1;
+		this.hitboxX0 = -4;
+		this.hitboxX1 = 3;
+		this.hitboxY0 = 3;
+		this.hitboxY1 = 7;
+		this.blockingTiles = Level.TILE_SOLID;
 	}
 
 	/**
@@ -92,7 +128,7 @@ public abstract class Mob extends Entity {
 			return;
 		}
 		numSteps++;
-		if (!hasCollided(xa, ya)) {
+		if (!hasCollided(xa*speed, ya*speed)) {
 			if (ya < 0) movingDir = 0;
 			if (ya > 0) movingDir = 1;
 			if (xa < 0) movingDir = 2;
@@ -100,53 +136,21 @@ public abstract class Mob extends Entity {
 
 			x += xa*speed;
 			y += ya*speed;
+			if (level != null) {
+				level.entityMoved(this);
+			}
 		}
 	}
 
 	/**
-	 * Method to check if the mob has collided if it were to move to a direction
-	 * @param xa 	The x direction the mob would move to.
-	 * @param ya 	The y direction the mob would move to.
+	 * Checks if the mob would collide with the level's tiles moving in a direction.
+	 * Only tiles newly entered by the mob's hitbox can block it, see Level.isMoveBlocked.
+	 * @param xa 	The number of pixels the mob would move along x.
+	 * @param ya 	The number of pixels the mob would move along y.
 	 * @return A boolean, true if will collide, false otherwise.
 	 */
-	public abstract boolean hasCollided(int xa, int ya);
-
-	/**
-	 * Checks if the mob is moving into a solid tile.
-	 * @param xa 	The x direction the mob would move to.
-	 * @param ya 	The y direction the mob would move to.
-	 * @param x 	The mob's current x location.
-	 * @param y 	The mob's current y location.
-	 * @return A boolean, true if the tile the the mob would be moving onto is solid, false otherwise.
-	 */
-	protected boolean isSolidTile(int xa, int ya, int x, int y) {
-		if (level == null) {
-			return false;
-		}
-
-		Tile lastTile = level.getTile((this.x + x)>>3, (this.y + y)>>3);
-		Tile newTile = level.getTile((this.x + x + xa)>>3, (this.y + y + ya)>>3);
-
-		if (!lastTile.equals(newTile) && newTile.isSolid() || (this instanceof Orc && newTile.getId()==4)) {
-			return true;
-		}
-		return false;
-	}
-
-	/**
-	 * Checks if mob is touching another mob
-	 * @param entity 	The entity to compare caller mob to.
-	 * @return A boolean, true if the mobs are touching, false otherwise.
-	 */
-	public boolean isTouching(Entity entity) {
-		double hitbox = 8.0;
-		double xdif = (this.x - entity.x);
-		double ydif = (this.y - entity.y);
-		double distance = Math.sqrt(Math.abs(xdif)*Math.abs(xdif) + Math.abs(ydif)*Math.abs(ydif));
-		if(distance < hitbox)
-			return true;
-		else
-			return false;
+	public boolean hasCollided(int xa, int ya) {
+		return level != null && level.isMoveBlocked(x + hitboxX0, y + hitboxY0, x + hitboxX1, y + hitboxY1, xa, ya, blockingTiles);
 	}
 
 	/**
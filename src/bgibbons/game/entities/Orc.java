@@ -5,8 +5,6 @@ import bgibbons.game.graphics.Font;
 import bgibbons.game.graphics.Screen;
 import bgibbons.game.level.Level;
 
-import java.util.Random;
-
 /**
  * An extension of the Enemy class for an orc.
  * @author Chris Porras based on Player.java
@@ -18,6 +16,9 @@ public class Orc extends Enemy {
 	private int stepsTaken = 0;
 	private int direction = 4;
 	private int stop;
+	public int area = 0;		// Respawn area of the main level the orc was added to, 0 if none, maintained by the level
+	public int areaSlot = -1;	// Index of the orc in its area's list, maintained by the level
+	public int quadrant = -1;	// Quadrant of its area the orc is counted in, maintained by the level
 	/**
 	 * Constructor the Orc object.
 	 * @param level 	Level for the orc to be added to.
@@ -25,7 +26,26 @@ public class Orc extends Enemy {
 	 * @param y 		The y coordinate the orc will start at.
 	 */
 	public Orc(Level level, int x, int y) {
-		super(level, x, y, 0, 26, Colors.get(-1, 000, 320, 120), 12, 1, 1, 100, 1);
+		super(level);
+		reset(level, x, y);
+	}
+
+	/**
+	 * Sets the orc up as a new orc, so a pooled orc can be reused.
+	 * @param level 	Level for the orc to be added to.
+	 * @param x 		The x coordinate the orc will start at.
+	 * @param y 		The y coordinate the orc will start at.
+	 */
+	public void reset(Level level, int x, int y) {
+		init(level);
+		initEnemy(x, y, 0, 26, Colors.get(-1, 000, 320, 120), 12, 1, 1, 100, 1);
+		this.blockingTiles = Level.TILE_SOLID | Level.TILE_BLOCKS_ORCS;
+		this.stepsTaken = 0;
+		this.direction = 4;
+		this.stop = 0;
+		this.area = 0;
+		this.areaSlot = -1;
+		this.quadrant = -1;
 	}
 
 	/**
@@ -44,14 +64,12 @@ public class Orc extends Enemy {
 	/*
 	* Method to determine the movement of orcs
 	*/
-	public void move() {
-
-		Random rand = new Random();
+	protected void chooseStep() {
 
 		if(stepsTaken >= stop){
 			stepsTaken = 0;
-			stop = rand.nextInt(20)+11;
-			direction = rand.nextInt(5);
+			stop = nextRandom(20)+11;
+			direction = nextRandom(5);
 		}
 
 
@@ -80,19 +98,8 @@ public class Orc extends Enemy {
 			stepsTaken++;
 		}
 
-		if (xa != 0 || ya != 0) {
-			move(xa, ya);
-			isMoving = true;
-		} else {
-			isMoving = false;
-		}
-
-		if (level.getTile(this.x >> 3, this.y >> 3).getId() == 3) {
-			isSwimming = true;
-		}
-		if  (isSwimming && level.getTile(this.x >> 3, this.y >> 3).getId() != 3) {
-			isSwimming = false;
-		}
+		intentX = xa;
+		intentY = ya;
 	}
 
 	public int getDirection(){
@@ -46,6 +46,8 @@ public class Player extends Mob {
 		this.mainY = y;
 		this.input = input;
 		this.playerClass = "Standard";
+		this.collisionLayer = LAYER_PLAYER;
+		this.collisionMask = LAYER_ENEMY | LAYER_PICKUP | LAYER_PAD;
 	}
 
 	/**
@@ -81,10 +83,10 @@ public class Player extends Mob {
 			isMoving = false;
 		}
 
-		if (level.getTile(this.x >> 3, this.y >> 3).getId() == 3) {
+		if ((level.getTileFlags(this.x >> 3, this.y >> 3) & Level.TILE_WATER) != 0) {
 			isSwimming = true;
 		}
-		if  (isSwimming && level.getTile(this.x >> 3, this.y >> 3).getId() != 3) {
+		if  (isSwimming && (level.getTileFlags(this.x >> 3, this.y >> 3) & Level.TILE_WATER) == 0) {
 			isSwimming = false;
 		}
 		tickCount++;
@@ -93,8 +95,10 @@ public class Player extends Mob {
 	/**
 	 * Renders the player to the screen
 	 * @param screen 	The screen to render the player to.
+	 * @param x 		The x coordinate to draw the player at.
+	 * @param y 		The y coordinate to draw the player at.
 	 */
-	public void render(Screen screen) {
+	public void render(Screen screen, int x, int y) {
 		int xTile = 0;
 		int yTile = 28;
 		int walkingSpeed = 4;
@@ -151,44 +155,14 @@ public class Player extends Mob {
 	}
 
 	/**
-	 * Checks if the player will collide when moving.
-	 * @param xa 	The x direction the player wants to move.
-	 * @param ya 	The y direction the player wants to move.
+	 * Returns that the player keeps the level awake around them.
+	 * @return True.
 	 */
-	public boolean hasCollided(int xa, int ya) {
-		int xMin = -4;
-		int xMax = 3;
-		int yMin = 3;
-		int yMax = 7;
-
-		for (int x=xMin; x<xMax; x++) {
-			if (isSolidTile(xa, ya, x, yMin)) {
-				return true;
-			}
-		}
-
-		for (int x=xMin; x<xMax; x++) {
-			if (isSolidTile(xa, ya, x, yMax)) {
-				return true;
-			}
-		}
-
-		for (int y=yMin; y<yMax; y++) {
-			if (isSolidTile(xa, ya, xMin, y)) {
-				return true;
-			}
-		}
-
-		for (int y=yMin; y<yMax; y++) {
-			if (isSolidTile(xa, ya, xMax, y)) {
-				return true;
-			}
-		}
-
-
-		return false;
+	public boolean isActivityTrigger() {
+		return true;
 	}
 
+
 	/**
 	 * Level up the mob once max exp is reached.
 	 */
@@ -0,0 +1,108 @@
+package bgibbons.game.entities;
+
+import bgibbons.game.level.Level;
+
+/**
+ * Class holding the pools of the entities the game makes and throws away over and over: respawning orcs and combat loot.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class Pools {
+
+	public static final int CAPACITY = 256;		// Most entities each pool keeps waiting
+
+	public static final EntityPool<Orc> ORCS = new EntityPool<Orc>("Orc", CAPACITY, new EntityPool.Factory<Orc>() {
+		public Orc create() {
+			return new Orc(null, 0, 0);
+		}
+	});
+	public static final EntityPool<Helmet> HELMETS = new EntityPool<Helmet>("Helmet", CAPACITY, new EntityPool.Factory<Helmet>() {
+		public Helmet create() {
+			return new Helmet(null, "Helmet", "", 0, 0, 0);
+		}
+	});
+	public static final EntityPool<Chest> CHESTS = new EntityPool<Chest>("Chest", CAPACITY, new EntityPool.Factory<Chest>() {
+		public Chest create() {
+			return new Chest(null, "Chest", "", 0, 0, 0);
+		}
+	});
+	public static final EntityPool<Legs> LEGS = new EntityPool<Legs>("Legs", CAPACITY, new EntityPool.Factory<Legs>() {
+		public Legs create() {
+			return new Legs(null, "Legs", "", 0, 0, 0);
+		}
+	});
+	public static final EntityPool<Shield> SHIELDS = new EntityPool<Shield>("Shield", CAPACITY, new EntityPool.Factory<Shield>() {
+		public Shield create() {
+			return new Shield(null, "Shield", "", 0, 0, 0);
+		}
+	});
+	public static final EntityPool<Weapon> WEAPONS = new EntityPool<Weapon>("Weapon", CAPACITY, new EntityPool.Factory<Weapon>() {
+		public Weapon create() {
+			return new Weapon(null, "Weapon", "", 0, 0, 0);
+		}
+	});
+
+	private static final EntityPool<?>[] ALL = {ORCS, HELMETS, CHESTS, LEGS, SHIELDS, WEAPONS};
+
+	/**
+	 * Returns every pool, for reporting their statistics.
+	 * @return The pools, not to be changed.
+	 */
+	public static EntityPool<?>[] getAll() {
+		return ALL;
+	}
+
+	/**
+	 * Takes an orc from the pool and sets it up as a new orc.
+	 * @param level 	Level for the orc to be added to.
+	 * @param x 		The x coordinate the orc will start at.
+	 * @param y 		The y coordinate the orc will start at.
+	 * @return The orc.
+	 */
+	public static Orc acquireOrc(Level level, int x, int y) {
+		Orc orc = ORCS.acquire();
+		orc.reset(level, x, y);
+		return orc;
+	}
+
+	/**
+	 * Takes an item from a pool and sets it up as a new item.
+	 * @param pool 			Pool of the kind of item to take.
+	 * @param level 		Level to add the item to.
+	 * @param name 			The name of the item.
+	 * @param description 	The description of the item.
+	 * @param dexterity 	Dexterity Stat of item.
+	 * @param intelligence 	Intelligence Stat of item.
+	 * @param vitality 		Vitality Stat of item.
+	 * @return The item.
+	 */
+	public static <T extends Item> T acquireItem(EntityPool<T> pool, Level level, String name, String description, int dexterity, int intelligence, int vitality) {
+		T item = pool.acquire();
+		item.reset(level, name, description, dexterity, intelligence, vitality);
+		return item;
+	}
+
+	/**
+	 * Gives an entity that has left the game back to the pool of its kind, if it is a pooled kind.
+	 * The entity must not be on any level, and nothing may use it afterwards.
+	 * @param entity 	The entity.
+	 * @return A boolean, true if a pool kept the entity, false otherwise.
+	 */
+	public static boolean release(Entity entity) {
+		Class<?> type = entity.getClass();
+		if (type == Orc.class) {
+			return ORCS.release((Orc)entity);
+		} else if (type == Helmet.class) {
+			return HELMETS.release((Helmet)entity);
+		} else if (type == Chest.class) {
+			return CHESTS.release((Chest)entity);
+		} else if (type == Legs.class) {
+			return LEGS.release((Legs)entity);
+		} else if (type == Shield.class) {
+			return SHIELDS.release((Shield)entity);
+		} else if (type == Weapon.class) {
+			return WEAPONS.release((Weapon)entity);
+		}
+		return false;
+	}
+}
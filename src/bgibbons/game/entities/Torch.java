@@ -11,8 +11,6 @@ import bgibbons.game.level.Level;
  */
 public class Torch extends Entity {
 	
-	private int x;
-	private int y;
 	private int tileId;
 	private int[][] animationTileCoords;
 	private int currentAnimationIndex;
@@ -51,24 +49,10 @@ public class Torch extends Entity {
 	/**
 	 * Renders the torch to the screen
 	 * @param screen 	The screen the torch is to be rendered to.
+	 * @param x 		The x coordinate to draw the torch at.
+	 * @param y 		The y coordinate to draw the torch at.
 	 */
-	public void render(Screen screen) {
+	public void render(Screen screen, int x, int y) {
 		screen.render(x, y, tileId, Colors.get(-1, 211, 330, 530), 0x00, 1);
 	}
-
-	/**
-	 * Checks if torch is touching another torch
-	 * @param entity 	The entity to compare caller torch to.
-	 * @return A boolean, true if the mobs are touching, false otherwise.
-	 */
-	public boolean isTouching(Entity entity) {
-		double hitbox = 2.0;
-		double xdif = (this.x - entity.x);
-		double ydif = (this.y - entity.y);
-		double distance = Math.sqrt(Math.abs(xdif)*Math.abs(xdif) + Math.abs(ydif)*Math.abs(ydif));
-		if(distance < hitbox)
-			return true;
-		else
-			return false;
-	}
 }
\ No newline at end of file
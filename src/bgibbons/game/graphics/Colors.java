@@ -7,6 +7,27 @@ package bgibbons.game.graphics;
  */
 public class Colors {
 
+	/**
+	 * Returns the 216 color palette the color indices from get(int color) refer to.
+	 * @return An array of 6*6*6 rgb values where index r*36 + g*6 + b holds that color.
+	 */
+	public static int[] getPalette() {
+		int[] colors = new int[6*6*6];
+		int index = 0;
+		for (int r=0; r<6; r++) {
+			for (int g=0; g<6; g++) {
+				for (int b=0; b<6; b++) {
+					int rr = (r * 255/5);
+					int gg = (g * 255/5);
+					int bb = (b * 255/5);
+
+					colors[index++] = rr << 16 | gg << 8 | bb;
+				}
+			}
+		}
+		return colors;
+	}
+
 	/**
 	 * Returns the color to be used for a given sprite for each of the four colors in the sprite.
 	 * @param color1 	A three digit number "rgb" where each digit ranges from 0 to 5 and is for the black color of the sprite, or -1 for the color not to be rendered.
@@ -1,6 +1,7 @@
 package bgibbons.game.graphics;
 
 import bgibbons.game.Game;
+import bgibbons.game.Profiler;
 
 /**
  * Class to display a HUD to the screen showing the player's stats.
@@ -15,6 +16,7 @@ public class HUD {
 	 * @param game		Game to render from.
 	 */
 	public static void render(Screen screen, Game game) {
+		long start = Profiler.start();
 
 		// Render top left of screen
 		// Example: screen.render(screen.xOffset, screen.yOffset, tile, color, 0x00, 1);
@@ -47,6 +49,7 @@ public class HUD {
 
 		// Player rank
 		Font.render("Rank:" + game.player.getRank(), screen, screen.xOffset, screen.yOffset, Colors.get(-1,-1,-1,000), 1);
+		Profiler.stop(Profiler.Phase.HUD, start);
 	}
 
 }
\ No newline at end of file
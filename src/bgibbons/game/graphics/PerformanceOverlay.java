@@ -0,0 +1,147 @@
+package bgibbons.game.graphics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+import bgibbons.game.Game;
+import bgibbons.game.Profiler;
+import bgibbons.game.RollingHistogram;
+import bgibbons.game.entities.EntityPool;
+import bgibbons.game.entities.Pools;
+import bgibbons.game.level.Level;
+import bgibbons.game.level.LevelScheduler;
+
+/**
+ * Class to display a debug overlay to the screen showing the game's performance.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class PerformanceOverlay {
+
+	private static final int TEXT_COLOR = Colors.get(-1,-1,-1,555);
+	private static final int BACK_COLOR = Colors.get(0,0,0,0);
+
+	private com.sun.management.ThreadMXBean threads;	// Reads the bytes allocated by each thread, null if not supported
+	private long[] threadIds;			// The game thread then the level workers, whose allocations are added up
+	private long lastAllocated = -1;	// Bytes those threads had allocated at the last frame, -1 if unknown
+	private long allocatedPerFrame;		// Bytes those threads allocated between the last two frames
+	private ArrayList<String> lines = new ArrayList<String>();
+
+	/**
+	 * Constructor for the PerformanceOverlay object.
+	 */
+	public PerformanceOverlay() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+			threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+			if (!threads.isThreadAllocatedMemorySupported()) {
+				threads = null;
+			}
+		}
+	}
+
+	/**
+	 * Render the overlay to the screen below the HUD.
+	 * @param screen 	Screen to display the overlay to.
+	 * @param game 		Game to report on.
+	 */
+	public void render(Screen screen, Game game) {
+		if (threads != null) { // Includes the ticks ran since the last frame and the overlay's own strings
+			long allocated = 0;
+			for (long bytes : threads.getThreadAllocatedBytes(getThreadIds(game))) {
+				if (bytes > 0) allocated += bytes;	// -1 for a thread that has died
+			}
+			allocatedPerFrame = lastAllocated < 0 ? 0 : allocated - lastAllocated;
+			lastAllocated = allocated;
+		}
+
+		Runtime runtime = Runtime.getRuntime();
+		long usedHeap = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+
+		lines.clear();
+		lines.add("FPS:" + game.getFps() + " TPS:" + game.getTps());
+		lines.add("TICK:" + time(Profiler.get(Profiler.Phase.TICK)));
+		lines.add("REND:" + time(Profiler.get(Profiler.Phase.RENDER)));
+		lines.add("MAIN:" + count(game.main_level) + " CMB:" + count(game.combatLevel));
+		lines.add("D1:" + count(game.dungeon1) + " D2:" + count(game.dungeon2));
+		lines.add("GEN1:" + generation(game.dungeon1));
+		lines.add("GEN2:" + generation(game.dungeon2));
+		if (game.main_level != null) {
+			lines.add("ORCS:" + game.main_level.area1Orcs.size() + "/" + game.main_level.area2Orcs.size() + "/" + game.main_level.area3Orcs.size());
+		}
+		Level level = game.player == null ? null : game.player.getLevel();
+		if (level != null) {
+			lines.add("DRAW:" + level.getDrawn() + " CULL:" + level.getCulled());
+		}
+		if (level != null && level.getActivity() != null) {
+			lines.add("ACT:" + level.getActivity().getActive() + " SLEEP:" + level.getActivity().getAsleep());
+		}
+		long lootReused = 0;
+		long lootCreated = 0;
+		for (EntityPool<?> pool : Pools.getAll()) {
+			if (pool != Pools.ORCS) {
+				lootReused += pool.getReused();
+				lootCreated += pool.getCreated();
+			}
+		}
+		lines.add("POOL O:" + Pools.ORCS.getReused() + "/" + Pools.ORCS.getCreated());
+		lines.add("POOL I:" + lootReused + "/" + lootCreated);
+		lines.add("HEAP:" + usedHeap + "/" + (runtime.maxMemory() >> 20) + "MB");
+		lines.add(threads == null ? "ALLOC:N/A" : "ALLOC:" + String.format("%.1f", allocatedPerFrame/1024.0) + "KB/F");
+
+		int y = screen.yOffset + 2*8;	// Below the EXP and health bars
+		for (String line : lines) {
+			for (int i=0; i<line.length(); i++) { // Black behind the text so it reads over any tile
+				screen.render(screen.xOffset + i*8, y, 0, BACK_COLOR, 0x00, 1);
+			}
+			Font.render(line, screen, screen.xOffset, y, TEXT_COLOR, 1);
+			y += 8;
+		}
+	}
+
+	/**
+	 * Returns the ids of the threads that run the game, the game thread then the scheduler's workers.
+	 * @param game 	Game to get the threads of.
+	 * @return The thread ids.
+	 */
+	private long[] getThreadIds(Game game) {
+		LevelScheduler scheduler = game.getScheduler();
+		if (threadIds == null || threadIds.length != scheduler.getWorkers() + 1) {
+			threadIds = new long[scheduler.getWorkers() + 1];
+			threadIds[0] = Thread.currentThread().getId();
+			for (int i=0; i<scheduler.getWorkers(); i++) {
+				threadIds[i+1] = scheduler.getWorkerId(i);
+			}
+		}
+		return threadIds;
+	}
+
+	/**
+	 * Formats the p50 and p99 of a phase's timings in milli seconds.
+	 * @param histogram 	Timings of the phase in nano seconds.
+	 * @return The timings, as "p50/p99MS".
+	 */
+	private String time(RollingHistogram histogram) {
+		return String.format("%.2f/%.2fMS", histogram.getPercentile(50)/1000000.0, histogram.getPercentile(99)/1000000.0);
+	}
+
+	/**
+	 * Returns the number of entities on a level.
+	 * @param level 	Level to count the entities of, may be null.
+	 * @return The number of entities, 0 if there is no level.
+	 */
+	private int count(Level level) {
+		return level == null ? 0 : level.entities.size();
+	}
+
+	/**
+	 * Formats how a generated level was made, its generation time, caves before joining and walls carved.
+	 * @param level 	Level to report on, may be null.
+	 * @return The statistics, as "timeUS Rcaves Ccarved".
+	 */
+	private String generation(Level level) {
+		if (level == null) {
+			return "N/A";
+		}
+		return (level.getGenerationTime()/1000) + "US R" + level.getCaveRegions() + " C" + level.getCarvedTiles();
+	}
+}
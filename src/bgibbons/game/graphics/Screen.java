@@ -1,5 +1,11 @@
 package bgibbons.game.graphics;
 
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.util.ArrayList;
+
 /**
  * The screen object to be displayed to the user.
  * @author Brad Gibbons
@@ -13,7 +19,11 @@ public class Screen {
     public static final byte BIT_MIRROR_X = 0x01;
     public static final byte BIT_MIRROR_Y = 0x02;
 
-    public int[] pixels;
+    public static final int TRANSPARENT = 255;
+    public static final int CELL_SHIFT = 3;   // Dirty regions are tracked in 8x8 pixel cells
+
+    public BufferedImage image;
+    public byte[] pixels;
 
     public int xOffset = 0;
     public int yOffset = 0;
@@ -24,6 +34,22 @@ public class Screen {
     public int dim;
 
     public SpriteSheet sheet;
+    public SpriteCache spriteCache;     // Cache of resolved sprites, which every sprite is drawn from
+
+    private int cellsX;                 // Number of dirty cells across the screen
+    private int cellsY;                 // Number of dirty cells down the screen
+    private int[] dirtyAge;             // Number of presents each cell still has to be drawn for, 0 if clean
+    private int bufferCount = 1;        // Number of presents a change has to be drawn for to reach every back buffer
+    private int pixelsTouched;          // Number of pixels in the runs changed since the last present
+    private ArrayList<Rectangle> dirtyRects = new ArrayList<Rectangle>();
+
+    public byte[] background;           // Level tiles behind the entities, kept between frames so scrolling can reuse them
+    public Object backgroundOwner;      // Level the background was drawn from, null if it has to be redrawn
+    public int backgroundX;             // The x offset the background was drawn at
+    public int backgroundY;             // The y offset the background was drawn at
+    private int[] backgroundRuns;       // Opaque runs of the background, reused between calls
+    private boolean backgroundRunsStale = true;     // Whether the background changed since its runs were found
+    private int[] drawRuns;             // Opaque runs of the last image drawn with draw, reused between calls
 
     /**
      * Constructor object for the Screen object.
@@ -32,12 +58,36 @@ public class Screen {
      * @param sheet     Sprite sheet to be used.
      */
     public Screen(int width, int height, SpriteSheet sheet) {
+        this(width, height, sheet, Colors.getPalette());
+    }
+
+    /**
+     * Constructor object for the Screen object, rendering straight into an image indexed by the palette.
+     * @param width     Width of the screen.
+     * @param height    Height of the screen.
+     * @param sheet     Sprite sheet to be used.
+     * @param palette   The rgb values of the color indices, as from Colors.getPalette().
+     */
+    public Screen(int width, int height, SpriteSheet sheet, int[] palette) {
         this.width = width;
         this.height = height;
         this.sheet = sheet;
         this.dim = 0;
-        pixels = new int[width * height];
 
+        // Every entry past the palette, including TRANSPARENT, is black and never written
+        int[] cmap = new int[256];
+        System.arraycopy(palette, 0, cmap, 0, Math.min(palette.length, TRANSPARENT));
+        IndexColorModel colorModel = new IndexColorModel(8, 256, cmap, 0, false, -1, DataBufferByte.TYPE_BYTE);
+        image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+        pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+
+        cellsX = (width + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT;
+        cellsY = (height + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT;
+        dirtyAge = new int[cellsX * cellsY];
+        markAllDirty();
+
+        spriteCache = new SpriteCache(sheet, SpriteCache.DEFAULT_CAPACITY);
+        background = new byte[width * height];
     }
 
     /**
@@ -46,10 +96,142 @@ public class Screen {
      * @param yOffset   Offset in the y direction to be used.
      */
     public void setOffset(int xOffset, int yOffset) {
+        if (xOffset != this.xOffset || yOffset != this.yOffset) {
+            markAllDirty(); // The whole view scrolled
+        }
         this.xOffset = xOffset;
         this.yOffset = yOffset;
     }
 
+    /**
+     * Shifts the background by the change in offset since it was drawn, leaving the exposed strips to be redrawn.
+     * @param dx    Change in the x offset.
+     * @param dy    Change in the y offset.
+     */
+    public void scrollBackground(int dx, int dy) {
+        int length = width - Math.abs(dx);
+        int srcX = Math.max(dx, 0);
+        int dstX = Math.max(-dx, 0);
+        if (dy > 0) {
+            for (int y=0; y<height-dy; y++) {
+                System.arraycopy(background, srcX + (y + dy) * width, background, dstX + y * width, length);
+            }
+        } else {
+            for (int y=height-1; y>=-dy; y--) {
+                System.arraycopy(background, srcX + (y + dy) * width, background, dstX + y * width, length);
+            }
+        }
+        backgroundX += dx;
+        backgroundY += dy;
+        backgroundChanged();
+    }
+
+    /**
+     * Records that the background was written to, so its opaque runs are found again before it is next drawn.
+     */
+    public void backgroundChanged() {
+        backgroundRunsStale = true;
+    }
+
+    /**
+     * Draws the background to the screen, skipping its transparent pixels.
+     */
+    public void drawBackground() {
+        if (backgroundRunsStale) {
+            backgroundRuns = SpriteCache.opaqueRuns(background, width, height, backgroundRuns);
+            backgroundRunsStale = false;
+        }
+        blit(background, backgroundRuns, width, height, 0, 0);
+    }
+
+    /**
+     * Sets the number of buffers the screen is presented through, so changes are drawn to each of them.
+     * @param bufferCount   The number of buffers in the buffer strategy.
+     */
+    public void setBufferCount(int bufferCount) {
+        this.bufferCount = bufferCount;
+    }
+
+    /**
+     * Marks the whole screen as needing to be drawn.
+     */
+    public void markAllDirty() {
+        for (int i=0; i<dirtyAge.length; i++) {
+            dirtyAge[i] = bufferCount;
+        }
+        pixelsTouched = width * height;
+    }
+
+    /**
+     * Returns the regions of the screen that changed since they were last presented to every buffer.
+     * Dirty cells are merged into horizontal runs, and runs spanning the same columns on consecutive rows are merged.
+     * @return A list of the dirty rectangles in screen pixels, reused between calls.
+     */
+    public ArrayList<Rectangle> getDirtyRects() {
+        dirtyRects.clear();
+        int cellSize = 1 << CELL_SHIFT;
+        int merged = 0; // Rectangles before this index ended on an earlier row and cannot be extended
+        for (int cy=0; cy<cellsY; cy++) {
+            int rowStart = dirtyRects.size();
+            int cx = 0;
+            while (cx < cellsX) {
+                if (dirtyAge[cx + cy * cellsX] == 0) {
+                    cx++;
+                    continue;
+                }
+                int runStart = cx;
+                while (cx < cellsX && dirtyAge[cx + cy * cellsX] > 0) cx++;
+
+                int x = runStart << CELL_SHIFT;
+                int w = Math.min(cx << CELL_SHIFT, width) - x;
+                int y = cy << CELL_SHIFT;
+                int h = Math.min(y + cellSize, height) - y;
+
+                Rectangle above = null;
+                for (int i=merged; i<rowStart; i++) {
+                    Rectangle r = dirtyRects.get(i);
+                    if (r.x == x && r.width == w && r.y + r.height == y) {
+                        above = r;
+                        break;
+                    }
+                }
+                if (above != null) {
+                    above.height += h;
+                } else {
+                    dirtyRects.add(new Rectangle(x, y, w, h));
+                }
+            }
+            // Anything that did not grow into this row is finished
+            for (int i=merged; i<rowStart; i++) {
+                Rectangle r = dirtyRects.get(i);
+                if (r.y + r.height <= (cy << CELL_SHIFT)) {
+                    dirtyRects.set(i, dirtyRects.get(merged));
+                    dirtyRects.set(merged, r);
+                    merged++;
+                }
+            }
+        }
+        return dirtyRects;
+    }
+
+    /**
+     * Returns the fraction of the screen's pixels that changed since the last present.
+     * @return A value between 0 and 1.
+     */
+    public double getTouchedFraction() {
+        return Math.min(1.0, (double) pixelsTouched / (width * height));
+    }
+
+    /**
+     * Records that the dirty regions were presented to one more buffer.
+     */
+    public void presented() {
+        for (int i=0; i<dirtyAge.length; i++) {
+            if (dirtyAge[i] > 0) dirtyAge[i]--;
+        }
+        pixelsTouched = 0;
+    }
+
     /**
      * Renders to the screen.
      * @param xPos      Starting x position to render to.
@@ -64,40 +246,78 @@ public class Screen {
         xPos -= xOffset;
         yPos -= yOffset;
 
-        boolean mirrorX = (mirrorDir & BIT_MIRROR_X) > 0;
-        boolean mirrorY = (mirrorDir & BIT_MIRROR_Y) > 0;
-
-        int scaleMap = scale-1;
-        int xTile = tile % 32;
-        int yTile = tile / 32;
-        int tileOffset = (xTile << 3) + (yTile << 3) * sheet.width;
-
-        for (int y = 0; y<8; y++) {
-            int ySheet = y;
-            if (mirrorY) ySheet = 7-y;
+        int size = scale << 3;
+        int x0 = xPos - (((scale - 1) << 3) / 2);
+        int y0 = yPos - (((scale - 1) << 3) / 2);
+        if (x0 >= width || y0 >= height || x0 + size <= 0 || y0 + size <= 0) return; // Entirely off screen
 
-            int yPixel = y + yPos + (y * scaleMap) - ((scaleMap << 3)/2);
-
-            for (int x=0; x<8; x++) {
-            	int xSheet = x;
-            	if (mirrorX) xSheet = 7-x;
-
-            	int xPixel = x + xPos + (x * scaleMap) - ((scaleMap << 3)/2);
+        int slot = spriteCache.lookup(tile, color, mirrorDir, scale);
+        blit(spriteCache.getSprite(slot), spriteCache.getRuns(slot), size, size, x0, y0);
+    }
 
-            	int col = (color >> (sheet.pixels[xSheet + ySheet * sheet.width + tileOffset] * 8)) & 255;
+    /**
+     * Returns a sprite resolved to palette indices, from the sprite cache.
+     * @param tile      Tile from the sprite sheet.
+     * @param color     Color obtained from the Color.get(int, int, int, int) function.
+     * @param mirrorDir An integer value for how the sprite tile is to mirrored (0x00 where first digit is x mirror, second is y mirror).
+     * @param scale     Scale of the sprite.
+     * @return The (8*scale)x(8*scale) palette indices of the sprite, row by row, not to be modified.
+     */
+    public byte[] getSprite(int tile, int color, int mirrorDir, int scale) {
+        return spriteCache.get(tile, color, mirrorDir, scale);
+    }
 
-            	if (col < 255) {
-            		for (int yScale=0; yScale < scale; yScale++) {
-            			if (yPixel + yScale < 0 || yPixel + yScale >= height) continue;
+    /**
+     * Draws an image of palette indices to the screen, skipping its transparent pixels.
+     * @param src       Palette indices of the image, row by row.
+     * @param srcWidth  Width of the image.
+     * @param srcHeight Height of the image.
+     * @param xPos      The x position of the image's top left corner.
+     * @param yPos      The y position of the image's top left corner.
+     */
+    public void draw(byte[] src, int srcWidth, int srcHeight, int xPos, int yPos) {
+        int x0 = xPos - xOffset;
+        int y0 = yPos - yOffset;
+        if (x0 >= width || y0 >= height || x0 + srcWidth <= 0 || y0 + srcHeight <= 0) return; // Entirely off screen
+        drawRuns = SpriteCache.opaqueRuns(src, srcWidth, srcHeight, drawRuns);
+        blit(src, drawRuns, srcWidth, srcHeight, x0, y0);
+    }
 
-            			for (int xScale=0; xScale < scale; xScale++) {
-            				if (xPixel + xScale < 0 || xPixel + xScale >= width) continue;
+    /**
+     * Copies palette indices onto the screen a run of opaque pixels at a time, skipping transparent pixels.
+     * Runs already on the screen are left alone, so drawing the same frame again leaves it clean.
+     * @param sprite    Palette indices of the image, row by row.
+     * @param runs      Opaque runs of the image, as made by SpriteCache.opaqueRuns.
+     * @param w         Width of the image.
+     * @param h         Height of the image.
+     * @param x0        The x position on the screen of the image's top left corner.
+     * @param y0        The y position on the screen of the image's top left corner.
+     */
+    private void blit(byte[] sprite, int[] runs, int w, int h, int x0, int y0) {
+        int xStart = Math.max(0, -x0);
+        int xEnd = Math.min(w, width - x0);
+        int yStart = Math.max(0, -y0);
+        int yEnd = Math.min(h, height - y0);
 
-            				pixels[(xPixel + xScale) + (yPixel + yScale) * width] = col;
-            			}
-            		}
-            	}
+        for (int y=yStart; y<yEnd; y++) {
+            int srcRow = y * w;
+            int dstRow = x0 + (y0 + y) * width;
+            int cellRow = ((y0 + y) >> CELL_SHIFT) * cellsX;
+            for (int r=runs[y]; r<runs[y+1]; r+=2) {
+                int start = Math.max(runs[r], xStart);
+                int end = Math.min(runs[r+1], xEnd);
+                if (start >= end) continue;
+                int changed = 0;    // Compared without branching, so the loop stays tight
+                for (int i=start; i<end; i++) {
+                    changed |= sprite[srcRow + i] ^ pixels[dstRow + i];
+                }
+                if (changed == 0) continue;
+                System.arraycopy(sprite, srcRow + start, pixels, dstRow + start, end - start);
+                for (int cx=(x0 + start) >> CELL_SHIFT; cx<=(x0 + end - 1) >> CELL_SHIFT; cx++) {
+                    dirtyAge[cellRow + cx] = bufferCount;
+                }
+                pixelsTouched += end - start;
             }
         }
     }
-}
\ No newline at end of file
+}
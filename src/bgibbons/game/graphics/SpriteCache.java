@@ -0,0 +1,303 @@
+package bgibbons.game.graphics;
+
+/**
+ * Class to cache sprites from the sprite sheet already resolved to palette indices, mirrored and scaled.
+ * Each sprite is kept with the runs of opaque pixels in its rows, so it can be drawn a run at a time.
+ * Least recently used sprites are evicted once the cache is full.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class SpriteCache {
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private SpriteSheet sheet;	// Sprite sheet the sprites are resolved from
+	private int capacity;		// Most sprites held at once
+
+	private long[] keys;		// Key of the sprite in each slot
+	private byte[][] sprites;	// Resolved palette indices of the sprite in each slot, TRANSPARENT where not drawn
+	private int[][] runs;		// Opaque runs of the sprite in each slot, as made by opaqueRuns
+	private int[] buckets;		// First slot in each hash bucket, -1 if empty
+	private int[] chain;		// Next slot in the same hash bucket, -1 at the end
+	private int[] newer;		// Next more recently used slot, -1 for the most recent
+	private int[] older;		// Next less recently used slot, -1 for the least recent
+	private int mostRecent;		// Most recently used slot, -1 if empty
+	private int leastRecent;	// Least recently used slot, -1 if empty
+	private int size;			// Number of slots in use
+	private int hashShift;		// Shift to turn a mixed key into a bucket index
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Constructor for the SpriteCache object.
+	 * @param sheet 	Sprite sheet to resolve sprites from.
+	 * @param capacity 	The most sprites to hold at once.
+	 */
+	public SpriteCache(SpriteSheet sheet, int capacity) {
+		this.sheet = sheet;
+		this.capacity = capacity;
+		this.keys = new long[capacity];
+		this.sprites = new byte[capacity][];
+		this.runs = new int[capacity][];
+		this.chain = new int[capacity];
+		this.newer = new int[capacity];
+		this.older = new int[capacity];
+
+		int bucketBits = 1;
+		while ((1 << bucketBits) < capacity * 2) bucketBits++;
+		this.buckets = new int[1 << bucketBits];
+		this.hashShift = 64 - bucketBits;
+		clear();
+	}
+
+	/**
+	 * Empties the cache, leaving the hit and miss counters alone.
+	 */
+	public void clear() {
+		for (int i=0; i<buckets.length; i++) {
+			buckets[i] = -1;
+		}
+		for (int i=0; i<capacity; i++) {
+			sprites[i] = null;
+			runs[i] = null;
+		}
+		mostRecent = -1;
+		leastRecent = -1;
+		size = 0;
+	}
+
+	/**
+	 * Returns the sprite for a tile drawn with a color, mirror and scale, resolving it on a miss.
+	 * @param tile 		Tile from the sprite sheet.
+	 * @param color 	Color obtained from the Color.get(int, int, int, int) function.
+	 * @param mirrorDir An integer value for how the sprite tile is to mirrored (0x00 where first digit is x mirror, second is y mirror).
+	 * @param scale 	Scale of the sprite.
+	 * @return The (8*scale)x(8*scale) palette indices of the sprite, row by row.
+	 */
+	public byte[] get(int tile, int color, int mirrorDir, int scale) {
+		return sprites[lookup(tile, color, mirrorDir, scale)];
+	}
+
+	/**
+	 * Finds the slot holding the sprite for a tile drawn with a color, mirror and scale, resolving it on a miss.
+	 * @param tile 		Tile from the sprite sheet.
+	 * @param color 	Color obtained from the Color.get(int, int, int, int) function.
+	 * @param mirrorDir An integer value for how the sprite tile is to mirrored (0x00 where first digit is x mirror, second is y mirror).
+	 * @param scale 	Scale of the sprite.
+	 * @return The slot, valid until the next lookup.
+	 */
+	public int lookup(int tile, int color, int mirrorDir, int scale) {
+		long key = ((long) color << 32) | ((long) tile << 12) | ((mirrorDir & 3) << 8) | (scale & 255);
+		int bucket = (int) ((key * 0x9E3779B97F4A7C15L) >>> hashShift);
+
+		for (int slot = buckets[bucket]; slot != -1; slot = chain[slot]) {
+			if (keys[slot] == key) {
+				hits++;
+				touch(slot);
+				return slot;
+			}
+		}
+
+		misses++;
+		int slot;
+		if (size < capacity) {
+			slot = size++;
+		} else {
+			slot = leastRecent;
+			unlink(slot);
+			removeFromBucket(slot);
+			evictions++;
+		}
+		keys[slot] = key;
+		sprites[slot] = resolve(sheet, tile, color, mirrorDir, scale, sprites[slot]);
+		runs[slot] = opaqueRuns(sprites[slot], 8 * scale, 8 * scale, runs[slot]);
+		chain[slot] = buckets[bucket];
+		buckets[bucket] = slot;
+		linkMostRecent(slot);
+		return slot;
+	}
+
+	/**
+	 * Returns the sprite in a slot.
+	 * @param slot 	Slot from lookup.
+	 * @return The (8*scale)x(8*scale) palette indices of the sprite, row by row.
+	 */
+	public byte[] getSprite(int slot) {
+		return sprites[slot];
+	}
+
+	/**
+	 * Returns the opaque runs of the sprite in a slot.
+	 * @param slot 	Slot from lookup.
+	 * @return The runs, as made by opaqueRuns.
+	 */
+	public int[] getRuns(int slot) {
+		return runs[slot];
+	}
+
+	/**
+	 * Finds the runs of pixels in each row of an image that are not TRANSPARENT.
+	 * The first h+1 entries are where each row's runs start in the array, the last one where the runs end,
+	 * and each run is a pair of its first column and the column after its last, left to right.
+	 * @param image 	Palette indices of the image, row by row.
+	 * @param w 		Width of the image.
+	 * @param h 		Height of the image.
+	 * @param reuse 	An array to reuse if it is big enough, or null.
+	 * @return The runs of the image.
+	 */
+	public static int[] opaqueRuns(byte[] image, int w, int h, int[] reuse) {
+		int length = h + 1;
+		for (int y=0; y<h; y++) {
+			boolean opaque = false;
+			for (int x=0; x<w; x++) {
+				boolean pixelOpaque = image[x + y * w] != (byte) Screen.TRANSPARENT;
+				if (pixelOpaque && !opaque) length += 2;
+				opaque = pixelOpaque;
+			}
+		}
+		int[] runs = (reuse != null && reuse.length >= length) ? reuse : new int[length];
+		int next = h + 1;
+		for (int y=0; y<h; y++) {
+			runs[y] = next;
+			int x = 0;
+			while (x < w) {
+				if (image[x + y * w] == (byte) Screen.TRANSPARENT) {
+					x++;
+					continue;
+				}
+				runs[next++] = x;
+				while (x < w && image[x + y * w] != (byte) Screen.TRANSPARENT) x++;
+				runs[next++] = x;
+			}
+		}
+		runs[h] = next;
+		return runs;
+	}
+
+	/**
+	 * Resolves a sprite from the sprite sheet.
+	 * @param sheet 	Sprite sheet to resolve the sprite from.
+	 * @param tile 		Tile from the sprite sheet.
+	 * @param color 	Color obtained from the Color.get(int, int, int, int) function.
+	 * @param mirrorDir An integer value for how the sprite tile is to mirrored.
+	 * @param scale 	Scale of the sprite.
+	 * @param reuse 	An evicted sprite's array to reuse if it is the right size, or null.
+	 * @return The (8*scale)x(8*scale) palette indices of the sprite, row by row.
+	 */
+	static byte[] resolve(SpriteSheet sheet, int tile, int color, int mirrorDir, int scale, byte[] reuse) {
+		int size = 8 * scale;
+		byte[] sprite = (reuse != null && reuse.length == size * size) ? reuse : new byte[size * size];
+
+		int xTile = tile % 32;
+		int yTile = tile / 32;
+		int tileOffset = (xTile << 3) + (yTile << 3) * sheet.width;
+
+		// Mirroring is done by walking the sprite sheet backwards, so no pixel has to check for it
+		int xStep = (mirrorDir & Screen.BIT_MIRROR_X) > 0 ? -1 : 1;
+		int yStep = (mirrorDir & Screen.BIT_MIRROR_Y) > 0 ? -sheet.width : sheet.width;
+		int origin = tileOffset + (xStep < 0 ? 7 : 0) + (yStep < 0 ? 7 * sheet.width : 0);
+		int[] sheetPixels = sheet.pixels;
+
+		for (int ySheet=0; ySheet<8; ySheet++) {
+			int src = origin + ySheet * yStep;
+			int row = ySheet * scale * size;
+			int dst = row;
+			for (int xSheet=0; xSheet<8; xSheet++, src+=xStep) {
+				byte col = (byte) ((color >> (sheetPixels[src] << 3)) & 255);
+				for (int k=0; k<scale; k++) {
+					sprite[dst++] = col;
+				}
+			}
+			for (int k=1; k<scale; k++) { // The other rows of a scaled sprite pixel are the same
+				System.arraycopy(sprite, row, sprite, row + k * size, size);
+			}
+		}
+		return sprite;
+	}
+
+	/**
+	 * Makes a slot the most recently used.
+	 * @param slot 	Slot to move.
+	 */
+	private void touch(int slot) {
+		if (slot != mostRecent) {
+			unlink(slot);
+			linkMostRecent(slot);
+		}
+	}
+
+	/**
+	 * Adds a slot as the most recently used.
+	 * @param slot 	Slot to add.
+	 */
+	private void linkMostRecent(int slot) {
+		newer[slot] = -1;
+		older[slot] = mostRecent;
+		if (mostRecent != -1) newer[mostRecent] = slot;
+		mostRecent = slot;
+		if (leastRecent == -1) leastRecent = slot;
+	}
+
+	/**
+	 * Removes a slot from the recently used list.
+	 * @param slot 	Slot to remove.
+	 */
+	private void unlink(int slot) {
+		if (newer[slot] != -1) older[newer[slot]] = older[slot];
+		else mostRecent = older[slot];
+		if (older[slot] != -1) newer[older[slot]] = newer[slot];
+		else leastRecent = newer[slot];
+	}
+
+	/**
+	 * Removes a slot from its hash bucket.
+	 * @param slot 	Slot to remove.
+	 */
+	private void removeFromBucket(int slot) {
+		int bucket = (int) ((keys[slot] * 0x9E3779B97F4A7C15L) >>> hashShift);
+		if (buckets[bucket] == slot) {
+			buckets[bucket] = chain[slot];
+			return;
+		}
+		for (int prev = buckets[bucket]; prev != -1; prev = chain[prev]) {
+			if (chain[prev] == slot) {
+				chain[prev] = chain[slot];
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of lookups that found their sprite in the cache.
+	 * @return The number of cache hits.
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups that had to resolve their sprite.
+	 * @return The number of cache misses.
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of sprites evicted to make room for others.
+	 * @return The number of evictions.
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the number of sprites in the cache.
+	 * @return The number of sprites in the cache.
+	 */
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,147 @@
+package bgibbons.game.level;
+
+/**
+ * Class to split a level into square regions that are awake near the player and asleep elsewhere.
+ * Regions are woken every tick around triggers and by events, and fall asleep once they have not been woken for a while.
+ * Entities in sleeping regions still get a coarse tick every COARSE_INTERVAL ticks, staggered across the entities, so distant enemies drift slowly rather than freeze.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class ActivityRegions {
+
+	public static final int REGION_SHIFT = 7;			// Regions are 128x128 pixels, 16x16 tiles
+	public static final int REGION_SIZE = 1 << REGION_SHIFT;
+	public static final int WAKE_RADIUS = 160;			// Distance around a trigger that is kept awake, past the edge of the screen
+	public static final int LINGER_TICKS = 120;			// Ticks a region stays awake after it was last woken
+	public static final int COARSE_INTERVAL = 8;		// Ticks between the coarse ticks of a sleeping entity, a power of two
+
+	private int regionsX;		// Number of regions across the level
+	private int regionsY;		// Number of regions down the level
+	private long[] awakeUntil;	// Tick each region stays awake until, exclusive
+	private long tick;			// Number of ticks started
+
+	private int active;			// Entities ticked in the last tick
+	private int asleep;			// Entities skipped in the last tick
+
+	/**
+	 * Constructor for the ActivityRegions object.
+	 * @param width 	Width of the level in pixels.
+	 * @param height 	Height of the level in pixels.
+	 */
+	public ActivityRegions(int width, int height) {
+		this.regionsX = Math.max(1, (width + REGION_SIZE - 1) >> REGION_SHIFT);
+		this.regionsY = Math.max(1, (height + REGION_SIZE - 1) >> REGION_SHIFT);
+		this.awakeUntil = new long[regionsX * regionsY];
+		this.tick = 0;
+	}
+
+	/**
+	 * Starts a new tick, clearing the counts of active and sleeping entities.
+	 */
+	public void beginTick() {
+		tick++;
+		active = 0;
+		asleep = 0;
+	}
+
+	/**
+	 * Wakes the regions within a distance of a point.
+	 * @param x 		The x coordinate of the point in pixels.
+	 * @param y 		The y coordinate of the point in pixels.
+	 * @param radius 	The distance around the point to wake in pixels.
+	 */
+	public void wake(int x, int y, int radius) {
+		int rx0 = Math.max(0, (x - radius) >> REGION_SHIFT);
+		int rx1 = Math.min(regionsX - 1, (x + radius) >> REGION_SHIFT);
+		int ry0 = Math.max(0, (y - radius) >> REGION_SHIFT);
+		int ry1 = Math.min(regionsY - 1, (y + radius) >> REGION_SHIFT);
+		for (int ry=ry0; ry<=ry1; ry++) {
+			for (int rx=rx0; rx<=rx1; rx++) {
+				awakeUntil[rx + ry * regionsX] = tick + LINGER_TICKS;
+			}
+		}
+	}
+
+	/**
+	 * Checks if the region holding a point is awake.
+	 * @param x 	The x coordinate of the point in pixels.
+	 * @param y 	The y coordinate of the point in pixels.
+	 * @return A boolean, true if the region is awake, false otherwise.
+	 */
+	public boolean isAwake(int x, int y) {
+		return awakeUntil[regionAt(x, y)] > tick;
+	}
+
+	/**
+	 * Checks if an entity at a point should tick this tick, either because its region is awake or it is the entity's coarse tick.
+	 * @param x 		The x coordinate of the entity in pixels.
+	 * @param y 		The y coordinate of the entity in pixels.
+	 * @param stagger 	Any number fixed for the entity, spreading the coarse ticks of different entities over different ticks.
+	 * @return A boolean, true if the entity should tick, false if it sleeps.
+	 */
+	public boolean shouldTick(int x, int y, int stagger) {
+		return awakeUntil[regionAt(x, y)] > tick || ((tick + stagger) & (COARSE_INTERVAL - 1)) == 0;
+	}
+
+	/**
+	 * Returns the region holding a point, clamped to the level so points off it still have a region.
+	 * @param x 	The x coordinate of the point in pixels.
+	 * @param y 	The y coordinate of the point in pixels.
+	 * @return The index of the region.
+	 */
+	private int regionAt(int x, int y) {
+		int rx = x >> REGION_SHIFT;
+		int ry = y >> REGION_SHIFT;
+		rx = rx < 0 ? 0 : (rx >= regionsX ? regionsX - 1 : rx);
+		ry = ry < 0 ? 0 : (ry >= regionsY ? regionsY - 1 : ry);
+		return rx + ry * regionsX;
+	}
+
+	/**
+	 * Counts an entity as ticked or skipped in this tick.
+	 * @param ticked 	True if the entity was ticked, false if it slept.
+	 */
+	public void count(boolean ticked) {
+		if (ticked) {
+			active++;
+		} else {
+			asleep++;
+		}
+	}
+
+	/**
+	 * Returns the number of entities ticked in the last tick, including those given a coarse tick.
+	 * @return The number of active entities.
+	 */
+	public int getActive() {
+		return active;
+	}
+
+	/**
+	 * Returns the number of entities that slept through the last tick.
+	 * @return The number of sleeping entities.
+	 */
+	public int getAsleep() {
+		return asleep;
+	}
+
+	/**
+	 * Returns the number of regions awake in the current tick.
+	 * @return The number of awake regions.
+	 */
+	public int getAwakeRegions() {
+		int count = 0;
+		for (int i=0; i<awakeUntil.length; i++) {
+			if (awakeUntil[i] > tick) count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of regions the level is split into.
+	 * @return The number of regions.
+	 */
+	public int getRegions() {
+		return awakeUntil.length;
+	}
+}
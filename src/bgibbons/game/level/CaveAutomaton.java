@@ -0,0 +1,167 @@
+package bgibbons.game.level;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Class to grow caves with a cellular automaton based on The Game of Life, for generating dungeons.
+ * Each row of cells is packed into longs, one bit a cell, and a step counts the neighbours of 64 cells at once with bitwise adders.
+ * Cells off the grid count as live neighbours, so caves do not open onto the edges.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class CaveAutomaton {
+
+	private int width;
+	private int height;
+	private int words;			// Longs in each row
+	private int stride;			// Longs from one row to the next, the row and a guard long either side
+	private long edgeMask;		// Bits of the last long in a row that are past the right edge
+	private long[] cells;		// Live cells, row by row inside a border of guard longs, with every guard bit and bit past the right edge set
+	private long[] next;		// Cells being worked out by a step, swapped with cells when it is done
+
+	/**
+	 * Constructor for the CaveAutomaton object, with every cell dead.
+	 * @param width 	Width of the grid in cells.
+	 * @param height 	Height of the grid in cells.
+	 */
+	public CaveAutomaton(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.words = (width + 63) >> 6;
+		this.stride = words + 2;
+		this.edgeMask = (width & 63) == 0 ? 0 : -1L << (width & 63);
+		this.cells = new long[stride * (height + 2)];
+		this.next = new long[stride * (height + 2)];
+		Arrays.fill(cells, -1L);	// The guards are never written again, so off the grid is always live
+		Arrays.fill(next, -1L);
+		clear();
+	}
+
+	/**
+	 * Kills every cell.
+	 */
+	public void clear() {
+		for (int y=0; y<height; y++) {
+			int row = (y + 1) * stride;
+			Arrays.fill(cells, row + 1, row + words, 0);
+			cells[row + words] = edgeMask;
+		}
+	}
+
+	/**
+	 * Brings cells in a rectangle to life at random, going along each row in turn.
+	 * @param rand 		Random numbers to use.
+	 * @param percent 	Each cell is live if a roll from 0 to 99 is at most this.
+	 * @param x0 		The left edge of the rectangle, inclusive.
+	 * @param y0 		The top edge of the rectangle, inclusive.
+	 * @param x1 		The right edge of the rectangle, exclusive.
+	 * @param y1 		The bottom edge of the rectangle, exclusive.
+	 */
+	public void randomize(Random rand, int percent, int x0, int y0, int x1, int y1) {
+		for (int y=y0; y<y1; y++) {
+			for (int x=x0; x<x1; x++) {
+				set(x, y, rand.nextInt(100) <= percent);
+			}
+		}
+	}
+
+	/**
+	 * Checks if a cell is live.
+	 * @param x 	The x coordinate of the cell.
+	 * @param y 	The y coordinate of the cell.
+	 * @return A boolean, true if the cell is live, false if it is dead or off the grid.
+	 */
+	public boolean get(int x, int y) {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			return false;
+		}
+		return (cells[(y + 1) * stride + (x >> 6) + 1] & (1L << x)) != 0;
+	}
+
+	/**
+	 * Sets whether a cell is live.
+	 * @param x 	The x coordinate of the cell.
+	 * @param y 	The y coordinate of the cell.
+	 * @param live 	True to make the cell live, false to kill it.
+	 */
+	public void set(int x, int y, boolean live) {
+		int i = (y + 1) * stride + (x >> 6) + 1;
+		if (live) {
+			cells[i] |= 1L << x;
+		} else {
+			cells[i] &= ~(1L << x);
+		}
+	}
+
+	/**
+	 * Advances the grid one generation.
+	 * A live cell stays live with at least 2 live neighbours, and a dead cell comes to life with more than 3.
+	 */
+	public void step() {
+		long[] cells = this.cells;
+		long[] next = this.next;
+		for (int y=0; y<height; y++) {
+			int row = (y + 1) * stride;
+			// Slide a window of three longs along the rows above, at and below, so each long is loaded once
+			long upLeft = cells[row - stride], up = cells[row - stride + 1];
+			long midLeft = cells[row], mid = cells[row + 1];
+			long downLeft = cells[row + stride], down = cells[row + stride + 1];
+			for (int i=row+1; i<=row+words; i++) {
+				long upRight = cells[i - stride + 1];
+				long midRight = cells[i + 1];
+				long downRight = cells[i + stride + 1];
+
+				// Neighbours to the left and right of each cell, carrying bits across longs
+				long ul = (up << 1) | (upLeft >>> 63);
+				long ur = (up >>> 1) | (upRight << 63);
+				long ml = (mid << 1) | (midLeft >>> 63);
+				long mr = (mid >>> 1) | (midRight << 63);
+				long dl = (down << 1) | (downLeft >>> 63);
+				long dr = (down >>> 1) | (downRight << 63);
+
+				// Add the neighbours a row at a time, ones and twos of each row's count
+				long upOnes = ul ^ up ^ ur;
+				long upTwos = (ul & up) | (ur & (ul ^ up));
+				long midOnes = ml ^ mr;
+				long midTwos = ml & mr;
+				long downOnes = dl ^ down ^ dr;
+				long downTwos = (dl & down) | (dr & (dl ^ down));
+				long carry = (upOnes & midOnes) | (downOnes & (upOnes ^ midOnes));
+
+				// The count is at least 2 with any two, and at least 4 with at least two twos
+				long p = upTwos ^ midTwos;
+				long r = downTwos ^ carry;
+				long atLeast2 = upTwos | midTwos | downTwos | carry;
+				long atLeast4 = (upTwos & midTwos) | (downTwos & carry) | (p & r);
+				next[i] = atLeast4 | (mid & atLeast2);
+
+				upLeft = up;
+				up = upRight;
+				midLeft = mid;
+				mid = midRight;
+				downLeft = down;
+				down = downRight;
+			}
+			next[row + words] |= edgeMask;
+		}
+		this.cells = next;
+		this.next = cells;
+	}
+
+	/**
+	 * Returns the width of the grid.
+	 * @return The width in cells.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of the grid.
+	 * @return The height in cells.
+	 */
+	public int getHeight() {
+		return height;
+	}
+}
@@ -0,0 +1,221 @@
+package bgibbons.game.level;
+
+import java.util.Arrays;
+
+/**
+ * Class to find the separate caves of a generated map and carve corridors joining the ones that need to meet.
+ * Caves are labelled by a breadth first search over live cells touching side by side, the way mobs can walk between tiles.
+ * Corridors are two cells wide, so mobs fit through, and cut through as few blocks of wall as they can.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class CaveConnector {
+
+	private int width;
+	private int height;
+	private int[] labels;		// Cave of each cell, numbered from 1, 0 for walls
+	private int[] queue;		// Cells or blocks waiting to be searched
+	private int[] nextQueue;	// Blocks reached by crossing one more block holding walls, searched once the queue is empty
+	private int[] cost;			// Blocks holding walls crossed to reach each block, -1 if not reached yet
+	private int[] from;			// Block each block was reached from, -1 for the first block
+
+	private int regions;		// Caves found by the last labelling
+	private int largest;		// Cells in the largest cave found by the last labelling
+
+	/**
+	 * Constructor for the CaveConnector object.
+	 * @param width 	Width of the maps to connect in cells.
+	 * @param height 	Height of the maps to connect in cells.
+	 */
+	public CaveConnector(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.labels = new int[width * height];
+		this.queue = new int[width * height];
+		this.nextQueue = new int[width * height];
+		this.cost = new int[width * height];
+		this.from = new int[width * height];
+	}
+
+	/**
+	 * Labels every cave in a map, so cells in the same cave share a label.
+	 * @param map 	The map, live where the floor is.
+	 * @return The number of caves.
+	 */
+	public int label(CaveAutomaton map) {
+		Arrays.fill(labels, 0);
+		regions = 0;
+		largest = 0;
+		for (int y=0; y<height; y++) {
+			for (int x=0; x<width; x++) {
+				if (labels[x + y * width] != 0 || !map.get(x, y)) {
+					continue;
+				}
+				regions++;
+				int size = 0;
+				int tail = 0;
+				labels[x + y * width] = regions;
+				queue[tail++] = x + y * width;
+				for (int head=0; head<tail; head++) {
+					int cell = queue[head];
+					int cx = cell % width;
+					int cy = cell / width;
+					size++;
+					tail = visit(map, cx - 1, cy, tail);
+					tail = visit(map, cx + 1, cy, tail);
+					tail = visit(map, cx, cy - 1, tail);
+					tail = visit(map, cx, cy + 1, tail);
+				}
+				if (size > largest) largest = size;
+			}
+		}
+		return regions;
+	}
+
+	/**
+	 * Adds a cell to the cave being labelled if it is unlabelled floor.
+	 * @param map 	The map being labelled.
+	 * @param x 	The x coordinate of the cell.
+	 * @param y 	The y coordinate of the cell.
+	 * @param tail 	The end of the queue.
+	 * @return The new end of the queue.
+	 */
+	private int visit(CaveAutomaton map, int x, int y, int tail) {
+		if (map.get(x, y) && labels[x + y * width] == 0) {
+			labels[x + y * width] = regions;
+			queue[tail++] = x + y * width;
+		}
+		return tail;
+	}
+
+	/**
+	 * Returns the cave a cell is in, as of the last labelling.
+	 * @param x 	The x coordinate of the cell.
+	 * @param y 	The y coordinate of the cell.
+	 * @return The label of the cave, 0 if the cell is a wall or off the map.
+	 */
+	public int getLabel(int x, int y) {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			return 0;
+		}
+		return labels[x + y * width];
+	}
+
+	/**
+	 * Carves a two cell wide corridor between two blocks of the map, cutting through as few blocks holding walls as possible.
+	 * Blocks are 2x2 cells named by their top left cell, and only walls at least a margin in from the edge of the map are cut.
+	 * @param map 		The map to carve, live where the floor is.
+	 * @param x0 		The x coordinate of the first block.
+	 * @param y0 		The y coordinate of the first block.
+	 * @param x1 		The x coordinate of the second block.
+	 * @param y1 		The y coordinate of the second block.
+	 * @param margin 	Cells from the edge of the map where walls are never cut.
+	 * @return The number of walls cut, or -1 if the blocks can not be joined.
+	 */
+	public int connect(CaveAutomaton map, int x0, int y0, int x1, int y1, int margin) {
+		Arrays.fill(cost, -1);
+		int start = x0 + y0 * width;
+		int goal = x1 + y1 * width;
+		int level = walls(map, x0, y0, margin);
+		if (level < 0 || walls(map, x1, y1, margin) < 0) {
+			return -1;
+		}
+		cost[start] = level;
+		from[start] = -1;
+		int tail = 0;
+		int nextTail = 0;
+		queue[tail++] = start;
+		// Search outwards one more walled block at a time, so the goal is first reached by a cheapest path
+		while (tail > 0 && cost[goal] == -1) {
+			for (int head=0; head<tail; head++) {
+				int block = queue[head];
+				int bx = block % width;
+				int by = block / width;
+				for (int dir=0; dir<4; dir++) {
+					int nx = bx + (dir == 0 ? -1 : (dir == 1 ? 1 : 0));
+					int ny = by + (dir == 2 ? -1 : (dir == 3 ? 1 : 0));
+					int w = walls(map, nx, ny, margin);
+					if (w < 0) continue;
+					int n = nx + ny * width;
+					if (cost[n] != -1) continue;
+					if (w == 0) {
+						cost[n] = level;
+						from[n] = block;
+						queue[tail++] = n;
+					} else {
+						cost[n] = level + 1;
+						from[n] = block;
+						nextQueue[nextTail++] = n;
+					}
+				}
+			}
+			int[] swap = queue;
+			queue = nextQueue;
+			nextQueue = swap;
+			tail = nextTail;
+			nextTail = 0;
+			level++;
+		}
+		if (cost[goal] == -1) {
+			return -1;
+		}
+		int carved = 0;
+		for (int block = goal; block != -1; block = from[block]) {
+			int bx = block % width;
+			int by = block / width;
+			for (int dy=0; dy<2; dy++) {
+				for (int dx=0; dx<2; dx++) {
+					if (!map.get(bx + dx, by + dy)) {
+						map.set(bx + dx, by + dy, true);
+						carved++;
+					}
+				}
+			}
+		}
+		return carved;
+	}
+
+	/**
+	 * Counts the walls in a block that a corridor would have to cut.
+	 * @param map 		The map.
+	 * @param x 		The x coordinate of the block's top left cell.
+	 * @param y 		The y coordinate of the block's top left cell.
+	 * @param margin 	Cells from the edge of the map where walls are never cut.
+	 * @return The number of walls, or -1 if the block is off the map or has a wall too near the edge.
+	 */
+	private int walls(CaveAutomaton map, int x, int y, int margin) {
+		if (x < 0 || y < 0 || x + 1 >= width || y + 1 >= height) {
+			return -1;
+		}
+		int count = 0;
+		for (int dy=0; dy<2; dy++) {
+			for (int dx=0; dx<2; dx++) {
+				int cx = x + dx;
+				int cy = y + dy;
+				if (!map.get(cx, cy)) {
+					if (cx < margin || cy < margin || cx >= width - margin || cy >= height - margin) {
+						return -1;
+					}
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of caves found by the last labelling.
+	 * @return The number of caves.
+	 */
+	public int getRegions() {
+		return regions;
+	}
+
+	/**
+	 * Returns the size of the largest cave found by the last labelling.
+	 * @return The number of cells in the largest cave.
+	 */
+	public int getLargest() {
+		return largest;
+	}
+}
@@ -4,12 +4,17 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import javax.imageio.ImageIO;
 
+import bgibbons.game.Profiler;
 import bgibbons.game.entities.*;
 import bgibbons.game.graphics.Screen;
+import bgibbons.game.level.tiles.BaseTile;
 import bgibbons.game.level.tiles.Tile;
 
 import java.util.Random;
@@ -22,7 +27,20 @@ import java.util.Random;
  * @version 1.0 12 October, 2016
  */
 public class Level {
-	
+
+	public static final int CHUNK_SHIFT = 4;	// Static tiles are cached in chunks of 16x16 tiles
+	public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	public static final int TILE_SOLID = 1;			// Collision flags of a tile, as bits so a mask can hold several
+	public static final int TILE_WATER = 2;
+	public static final int TILE_BLOCKS_ORCS = 4;
+	public static final int THINK_BATCH = 256;	// Most entities one think task handles before splitting in two
+	public static final int RESPAWN_POPULATION = 50;	// Orcs each area of the main level is refilled to
+	private static final int[] AREA_BOUNDARIES = {0, 33, 117, 200};	// Tile column splitting each area of the main level into quadrants
+	private static final int[] AREA_RANKS = {0, 1, 5, 10};			// Rank of the orcs respawned in each area
+	private static final byte ADD = 0;		// What to do with an entity queued during a tick
+	private static final byte REMOVE = 1;
+	private static final byte RELEASE = 2;	// Remove the entity and give it back to its pool
+
 	private byte[] tiles;
 	public int width;
 	public int height;
@@ -38,6 +56,84 @@ public class Level {
 	private BufferedImage tileImage;
 	private BufferedImage entityImage;
 	private boolean mainLevel;
+	private Chunk[] chunks;	// Cached static tile chunks, null until first rendered or after being altered
+	private int chunksX;	// Number of chunks across the level
+	private boolean backgroundChanged = false;	// Whether a screen's background of this level is out of date
+	private byte[] tileFlags;	// Collision flags of every tile, null until first needed
+	private SpatialGrid grid;		// Entities indexed by position, null until the first entity is added
+	private long nextGridOrder = 0;	// Order given to the next entity added
+	private EnemyStore enemyStore;	// Wandering enemies held as arrays, null until first asked for
+	private ActivityRegions activity;	// Regions of the level awake this tick, null if every entity always ticks
+	private long seed;				// Seed the random numbers of the level and its entities come from
+	private Random random;			// Random numbers for fights and respawns
+	private ForkJoinPool thinkPool;	// Pool the entities think on in parallel, null to think on the ticking thread
+	private Entity[] ticking = new Entity[64];	// Entities ticking in the current tick
+	private boolean deferring = false;	// Whether entities added and removed are queued until the end of the tick
+	private Entity[] pendingEntities = new Entity[16];	// Entities added and removed during the current tick, in order
+	private byte[] pendingOps = new byte[16];			// What to do with each queued entity, ADD, REMOVE or RELEASE
+	private int numPending;								// Number of adds and removes queued
+	private Entity[] drawList = new Entity[64];	// Entities on the screen in the current frame
+	private int[] drawX = new int[64];			// Position each entity in the draw list is rendered at
+	private int[] drawY = new int[64];
+	private int[] drawOrder = new int[64];		// Indices into the draw list, sorted by y
+	private int[] drawSorted = new int[64];		// Scratch for sorting the draw order
+	private int[] drawCounts = new int[256];	// Scratch for counting sort keys
+	private int drawn;		// Entities rendered in the last frame
+	private int culled;		// Entities skipped in the last frame for being off the screen
+	private int[] quadrantOrcs = new int[16];	// Orcs counted in each quadrant of each area, by area*4+quadrant
+	private int[][] spawnTiles = new int[16][];	// Walkable tiles of each quadrant of each area, by area*4+quadrant, null until needed
+	private int[] spawnBoundaries = new int[4];	// Tile column each area's spawn tiles were split at
+	private int[] dungeonSpawnTiles;			// Walkable tiles enemies spawn on in a dungeon, null until needed
+	private long generationTime;	// Nanoseconds generating the level took
+	private int caveRegions;		// Separate caves the generated level had before they were joined
+	private int largestCave;		// Tiles in the largest of those caves
+	private int carvedTiles;		// Walls cut to join the start to the end
+
+	/**
+	 * A pre-rasterized block of the level's static tiles.
+	 */
+	private class Chunk {
+		public byte[] pixels;	// Palette indices of the static tiles, transparent where animated tiles are
+		public int width;		// Width of the chunk in pixels
+		public int height;		// Height of the chunk in pixels
+		public int[] animated;	// Level tile indices of the animated tiles in the chunk
+	}
+
+	/**
+	 * Task to have a range of entities think, splitting it between threads when it is large.
+	 */
+	private static class ThinkTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private Entity[] entities;
+		private int from;	// First entity to think, inclusive
+		private int to;		// Last entity to think, exclusive
+
+		/**
+		 * Constructor for the ThinkTask object.
+		 * @param entities 	The entities to think.
+		 * @param from 		The first entity to think, inclusive.
+		 * @param to 		The last entity to think, exclusive.
+		 */
+		public ThinkTask(Entity[] entities, int from, int to) {
+			this.entities = entities;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Has the entities think, or splits the range in two and has both halves think at once.
+		 */
+		protected void compute() {
+			if (to - from <= THINK_BATCH) {
+				for (int i=from; i<to; i++) {
+					entities[i].think();
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ThinkTask(entities, from, middle), new ThinkTask(entities, middle, to));
+			}
+		}
+	}
 
 	/**
 	 * Constructor for the Level object.
@@ -49,21 +145,40 @@ public class Level {
 		this.tileImagePath = tileImagePath;
 		this.entityImagePath = entityImagePath;
 		this.mainLevel = mainLevel;
+		setSeed(new Random().nextLong());
 		if (tileImagePath != null) {
 			this.loadLevelFromFile();
 		} else {
-			Random rand = new Random();
-			this.width = 64;
-			this.height = 64;
-			this.start = rand.nextInt(height-3) + 1;
-			//System.out.println(start);
-			this.end = rand.nextInt(height-3) + 1;
-			//System.out.println(end);
-			tiles = new byte[width*height];
-			this.generateLevel();
+			this.createDungeon(64, 64);
 		}
 	}
 
+	/**
+	 * Constructor for a generated dungeon of any size.
+	 * @param width 	Width of the dungeon in tiles, at least 8.
+	 * @param height 	Height of the dungeon in tiles, at least 6.
+	 */
+	public Level(int width, int height) {
+		this.mainLevel = false;
+		setSeed(new Random().nextLong());
+		this.createDungeon(width, height);
+	}
+
+	/**
+	 * Picks where a generated dungeon opens and generates its tiles.
+	 * @param width 	Width of the dungeon in tiles.
+	 * @param height 	Height of the dungeon in tiles.
+	 */
+	private void createDungeon(int width, int height) {
+		Random rand = new Random();
+		this.width = width;
+		this.height = height;
+		this.start = rand.nextInt(height-3) + 1;
+		this.end = rand.nextInt(height-3) + 1;
+		tiles = new byte[width*height];
+		this.generateLevel();
+	}
+
 	/**
 	 * Load the level from the files specified in the constructor
 	 */
@@ -99,7 +214,7 @@ public class Level {
 					Entity e = new HealthPad(this, x*8, y*8);
 					this.addEntity(e);
 				} if (entityColors[x+y*width] == 0xFF005500) {
-					Entity e = new Orc(this, x*8, y*8);
+					Entity e = Pools.acquireOrc(this, x*8, y*8);
 					this.addEntity(e);
 				} if (entityColors[x+y*width] == 0xFFFF0000){
 					Entity e = new Boss(this, x*8, y*8);
@@ -146,375 +261,116 @@ public class Level {
 	 */
 	public void alterTile(int x, int y, Tile newTile) {
 		this.tiles[x+y*width] = newTile.getId();
+		if (tileFlags != null) {
+			tileFlags[x+y*width] = (byte) flagsOf(newTile);
+		}
+		if (chunks != null) {
+			chunks[(x >> CHUNK_SHIFT) + (y >> CHUNK_SHIFT) * chunksX] = null;
+		}
+		backgroundChanged = true;
+		wake(x << 3, y << 3, ActivityRegions.REGION_SIZE);
 		tileImage.setRGB(x, y, newTile.getLevelColor());
+		if (mainLevel) {
+			for (int area=1; area<=3; area++) { // Only the quadrants whose spawn rectangle, as listed by respawnOrcs, holds the tile
+				for (int quadrant=0; quadrant<4; quadrant++) {
+					int x0 = (quadrant & 1) == 0 ? spawnBoundaries[area]-32 : spawnBoundaries[area];
+					int y0 = quadrant < 2 ? 1 : 32;
+					if (x >= x0 && x < x0+32 && y >= y0 && y < y0+32) {
+						spawnTiles[area*4+quadrant] = null;
+					}
+				}
+			}
+		} else {
+			dungeonSpawnTiles = null;
+		}
 	}
 
 	/**
 	 * Generates the level tiles if no file is specified.
+	 * Grows caves, then carves a corridor from the start opening to the end opening if no cave joins them, so it always finishes in one pass.
 	 */
 	public void generateLevel() {
-		//set all tiles to stone
-		for (int y=0; y<height; y++) {
-			for (int x=0; x<width; x++) {
-				this.tiles[x+y*width] = 1;
-			}
-		}
+		long begin = System.nanoTime();
 		//begin procedural generation, algorithm based on The Game of Life by John Conway
 		//loop through all the tiles, minus borders
 		Random rand = new Random();
-		int temp = 0;
-		int test = 0;
-		Boolean[][] map = new Boolean[width][height];
+		CaveAutomaton map = new CaveAutomaton(width, height);
 
-		//initialize map to all false
-		for (int y=0; y<height; y++) {
-			for (int x=0; x<width; x++) {
-				map[x][y] = false;
-			}
-		}
+		//initialize map with a 41% chance of being live, away from the borders
+		map.randomize(rand, 40, 2, 2, width-2, height-2);
 
-		//initialize map with a 45% of being live
-		for (int y=2; y<(height-2); y++) {
-			for (int x=2; x<(width-2); x++) {
-				if(rand.nextInt(100) <= 40)
-					map[x][y] = true;
-				else
-					map[x][y] = false;
-			}
+		for(int i=0; i<2; i++){
+			map.step();
 		}
 
-		//generate map
-		for(int i=0; i<2; i++){
-			map = proceduralStep(map);
-		}
-
-		//set forced values for map
-		map[0][start] = true;
-		map[0][start+1] = true;
-		map[1][start] = true;
-		map[1][start+1] = true;
-		map[2][start] = true;
-		map[2][start+1] = true;
-		map[3][start] = true;
-		map[3][start+1] = true;
-		map[4][start] = true;
-		map[4][start+1] = true;
-		map[width-1][end] = true;
-		map[width-1][end+1] = true;
-		map[width-2][end] = true;
-		map[width-2][end+1] = true;
-		map[width-3][end] = true;
-		map[width-3][end+1] = true;
-		map[width-4][end] = true;
-		map[width-4][end+1] = true;
-		map[width-5][end] = true;
-		map[width-5][end+1] = true;
-
-		while(!checkValidDungeon(map, 0, start)){
-			for (int y=0; y<height; y++) {
-				for (int x=0; x<width; x++) {
-					map[x][y] = false;
+		//wall in the borders, which the caves may have grown into
+		for (int y=0; y<height; y++) {
+			for (int x=0; x<width; x++) {
+				if (x < 2 || y < 2 || x >= width-2 || y >= height-2) {
+					map.set(x, y, false);
 				}
 			}
+		}
 
-			for (int y=2; y<(height-2); y++) {
-				for (int x=2; x<(width-2); x++) {
-					if(rand.nextInt(100) <= 40)
-						map[x][y] = true;
-					else
-						map[x][y] = false;
-				}
-			}
+		//set forced start and end openings
+		for(int x=0; x<5; x++){
+			map.set(x, start, true);
+			map.set(x, start+1, true);
+			map.set(width-1-x, end, true);
+			map.set(width-1-x, end+1, true);
+		}
 
-			for(int i=0; i<2; i++){
-				map = proceduralStep(map);
-			}
-
-			map[0][start] = true;
-			map[0][start+1] = true;
-			map[1][start] = true;
-			map[1][start+1] = true;
-			map[2][start] = true;
-			map[2][start+1] = true;
-			map[3][start] = true;
-			map[3][start+1] = true;
-			map[4][start] = true;
-			map[4][start+1] = true;
-			map[width-1][end] = true;
-			map[width-1][end+1] = true;
-			map[width-2][end] = true;
-			map[width-2][end+1] = true;
-			map[width-3][end] = true;
-			map[width-3][end+1] = true;
-			map[width-4][end] = true;
-			map[width-4][end+1] = true;
-			map[width-5][end] = true;
-			map[width-5][end+1] = true;
-			//System.out.println("moomoomoomoo");
+		//join the openings if no cave does
+		CaveConnector caves = new CaveConnector(width, height);
+		caveRegions = caves.label(map);
+		largestCave = caves.getLargest();
+		carvedTiles = 0;
+		if (caves.getLabel(0, start) != caves.getLabel(width-1, end)) {
+			carvedTiles = caves.connect(map, 0, start, width-2, end, 2);
 		}
 
 		//apply tiles to map
-		for (int y=2; y<(height-2); y++){
-			for (int x=2; x<(width-2); x++){
-				if(map[x][y])
+		for (int y=0; y<height; y++){
+			for (int x=0; x<width; x++){
+				if(map.get(x, y))
 					this.tiles[x+y*width] = 2;
 				else
 					this.tiles[x+y*width] = 1;
 			}
 		}
+		generationTime = System.nanoTime() - begin;
+	}
 
-		//set forced start tiles
-		this.tiles[0+start*width] = 2;
-		this.tiles[0+(start+1)*width] = 2;
-		this.tiles[1+start*width] = 2;
-		this.tiles[1+(start+1)*width] = 2;
-		this.tiles[2+start*width] = 2;
-		this.tiles[2+(start+1)*width] = 2;
-		this.tiles[3+start*width] = 2;
-		this.tiles[3+(start+1)*width] = 2;
-		this.tiles[4+start*width] = 2;
-		this.tiles[4+(start+1)*width] = 2;
-		//set forced end tiles
-		this.tiles[(width - 1)+end*width] = 2;
-		this.tiles[(width - 1)+(end+1)*width] = 2;
-		this.tiles[(width - 2)+end*width] = 2;
-		this.tiles[(width - 2)+(end+1)*width] = 2;
-		this.tiles[(width - 3)+end*width] = 2;
-		this.tiles[(width - 3)+(end+1)*width] = 2;
-		this.tiles[(width - 4)+end*width] = 2;
-		this.tiles[(width - 4)+(end+1)*width] = 2;
-		this.tiles[(width - 5)+end*width] = 2;
-		this.tiles[(width - 5)+(end+1)*width] = 2;
-	}
-
-	public boolean checkValidDungeon(Boolean[][] map, int x, int y){
-		boolean check = true;
-		Boolean[][] tempMap = map;
-		int dir = 1;
-		x++;
-		x++;
-		while((!(x == 1 && y == start) && !(x == 62 && y == end)) && dir != 4){
-			switch(dir){
-				case 0:	
-					if(x != 0 && x != tempMap.length && y != 0 && y != tempMap[0].length){
-						if(!tempMap[x-1][y]){
-							//System.out.println("left wall found");
-							if(tempMap[x][y-1]){
-								//System.out.println("can go forward");
-								y--;
-							}
-							else if(tempMap[x+1][y]){
-								//System.out.println("can go right");
-								x++;
-								dir = 1;
-							}
-							else if(tempMap[x][y+1]){
-								//System.out.println("can go back");
-								y++;
-								dir = 2;
-							}
-							else{
-								//System.out.println("rip, no way out");
-								dir = 4;
-								check = false;
-							}
-						}
-						else{
-							//System.out.println("left wall not found, go left");
-							x--;
-							dir = 3;
-						}
-					}
-					else{
-						//System.out.println("rip, out of bounds");
-						dir = 4;
-						check = false;
-					}
-					break;
-				case 1:
-					if(x != 0 && x != tempMap.length && y != 0 && y != tempMap[0].length){
-						if(!tempMap[x][y-1]){
-							//System.out.println("left wall found");
-							if(tempMap[x+1][y]){
-								//System.out.println("can go forward");
-								x++;
-							}
-							else if(tempMap[x][y+1]){
-								//System.out.println("can go right");
-								y++;
-								dir = 2;
-							}
-							else if(tempMap[x-1][y]){
-								//System.out.println("can go back");
-								x--;
-								dir = 3;
-							}
-							else{
-								//System.out.println("rip, no way out");
-								dir = 4;
-								check = false;
-							}
-						}
-						else{
-							//System.out.println("left wall not found, go left");
-							y--;
-							dir = 0;
-						}
-					}
-					else{
-						//System.out.println("rip, out of bounds");
-						dir = 4;
-						check = false;
-					}
-					break;
-				case 2:
-					if(x != 0 && x != tempMap.length && y != 0 && y != tempMap[0].length){
-						if(!tempMap[x+1][y]){
-							//System.out.println("left wall found");
-							if(tempMap[x][y+1]){
-								//System.out.println("can go forward");
-								y++;
-							}
-							else if(tempMap[x-1][y]){
-								//System.out.println("can go right");
-								x--;
-								dir = 3;
-							}
-							else if(tempMap[x][y-1]){
-								//System.out.println("can go back");
-								y--;
-								dir = 0;
-							}
-							else{
-								//System.out.println("rip, no way out");
-								dir = 4;
-								check = false;
-							}
-						}
-						else{
-							//System.out.println("left wall not found, go left");
-							x++;
-							dir = 1;
-						}
-					}
-					else{
-						//System.out.println("rip, out of bounds");
-						dir = 4;
-						check = false;
-					}
-					break;
-				case 3:
-					if(x != 0 && x != tempMap.length && y != 0 && y != tempMap[0].length){
-						if(!tempMap[x][y+1]){
-							//System.out.println("left wall found");
-							if(tempMap[x-1][y]){
-								//System.out.println("can go forward");
-								x--;
-								dir = 3;
-							}
-							else if(tempMap[x][y-1]){
-								//System.out.println("can go right");
-								y--;
-								dir = 0;
-							}
-							else if(tempMap[x+1][y]){
-								//System.out.println("can go back");
-								x++;
-								dir = 1;
-							}
-							else{
-								//System.out.println("rip, no way out");
-								dir = 4;
-								check = false;
-							}
-						}
-						else{
-							//System.out.println("left wall not found, go left");
-							y++;
-							dir = 2;
-						}
-					}
-					else{
-						//System.out.println("rip, out of bounds");
-						dir = 4;
-						check = false;
-					}
-					break;
-				case 4:
-					//System.out.println("rip, dir 4");
-					check = false;
-					break;
-				default:
-					check = false;
-					break;
-			}
-		}
-		if(x == 62 && y == end){
-			//System.out.println("end found");
-		}
-		else if(x == 1 && y == start){
-			//System.out.println("start found");
-		}
-		else{
-			//System.out.println(check);
-		}
-		return check;
+	/**
+	 * Returns how long generating the level took.
+	 * @return The time in nanoseconds, 0 if the level was loaded from a file.
+	 */
+	public long getGenerationTime() {
+		return generationTime;
 	}
 
 	/**
-	 * Uses 4 rules of "The Game of Life" to generate a new map.
-	 * @param oldMap	Old boolean map representing the dungeon.
-	 * @return A new boolean map representing the dungeon.
+	 * Returns the number of separate caves the generated level had before they were joined.
+	 * @return The number of caves, 0 if the level was loaded from a file.
 	 */
-	public Boolean[][] proceduralStep(Boolean[][] oldMap){
-		Boolean[][] newMap = new Boolean[width][height];
-		for(int y=0; y<oldMap[0].length; y++){
-			for(int x=0; x<oldMap.length; x++){
-				int neighbours = checkTile(oldMap, x, y);
-				if(oldMap[x][y]){
-					if(neighbours < 2){
-						newMap[x][y] = false;
-					}
-					else{
-						newMap[x][y] = true;
-					}
-				}
-				else{
-					if(neighbours > 3){
-						newMap[x][y] = true;
-					}
-					else{
-						newMap[x][y] = false;
-					}
-				}
-			}
-		}
-		return newMap;
+	public int getCaveRegions() {
+		return caveRegions;
 	}
 
 	/**
-	 * Counts the number of live tiles surrounding the passed tile.
-	 * @param map 	The boolean map representing the dungeon.
-	 * @param x 	The x coordinate of the current tile.
-	 * @param y 	The y coordinate of the current tile.
-	 * @return The number of live tiles surrounding the passed tile.
+	 * Returns the size of the largest cave of the generated level before they were joined.
+	 * @return The number of tiles in the largest cave, 0 if the level was loaded from a file.
 	 */
-	public int checkTile(Boolean[][] map, int x, int y){
-		int count = 0;
-		for(int j=-1; j<=1; j++){
-			for(int i=-1; i<=1; i++){
-				if(i==0 && j==0){
-					//Looking at current tile
-				}
-				else if((x+i) < 0 || (y+j) < 0 || (x+i) >= map.length || (y+j) >= map[0].length){
-					count++;
-				}
-				else if(map[x+i][y+j]){
-					count++;
-				}
-			}
-		}
-		return count;
+	public int getLargestCave() {
+		return largestCave;
+	}
+
+	/**
+	 * Returns the number of walls cut to join the start of the generated level to the end.
+	 * @return The number of tiles carved, 0 if a cave already joined them or the level was loaded from a file.
+	 */
+	public int getCarvedTiles() {
+		return carvedTiles;
 	}
 
 	/**
@@ -537,15 +393,59 @@ public class Level {
 	 * Ticks the tiles and entities in the level.
 	 */
 	public void tick() {
+		tickEntities();
+		tickTiles();
+	}
+
+	/**
+	 * Ticks the entities in the level, fights between orcs and respawning, but not the tiles, which every level shares.
+	 * Only touches this level, so different levels can be ticked on different threads at once.
+	 * Every entity ticking thinks first, in parallel if there is a think pool, then they tick one after another in order.
+	 * The entities' random numbers are their own, so the result does not depend on how many threads did the thinking.
+	 * Entities added or removed during the tick are queued and only join or leave the level once it is over.
+	 */
+	public void tickEntities() {
+		long start = Profiler.start();
+		deferring = true;
 		int winner;
 		Entity eLoser = null;
 		Entity eWinner = null;
+		storePositions();
+		if (activity != null) {
+			activity.beginTick();
+			for (Entity e : entities) {
+				if (e.isActivityTrigger()) {
+					activity.wake(e.x, e.y, ActivityRegions.WAKE_RADIUS);
+				}
+			}
+		}
+		int numTicking = 0;
 		for (Entity e : entities) { 
+			if (activity != null) {
+				boolean ticked = !e.canSleep() || activity.shouldTick(e.x, e.y, (int) e.gridOrder);
+				activity.count(ticked);
+				if (!ticked) {
+					continue;
+				}
+			}
+			if (numTicking == ticking.length) ticking = Arrays.copyOf(ticking, numTicking * 2);
+			ticking[numTicking++] = e;
+		}
+		if (thinkPool == null || numTicking <= THINK_BATCH) {
+			for (int i=0; i<numTicking; i++) {
+				ticking[i].think();
+			}
+		} else {
+			thinkPool.invoke(new ThinkTask(ticking, 0, numTicking));
+		}
+		for (int i=0; i<numTicking; i++) {
+			Entity e = ticking[i];
+			ticking[i] = null;
 			e.tick();
 			if (!(e instanceof Player) && e instanceof Orc) {
 				Entity e1 = getTouching(e);
 				if(e1 instanceof Orc && !(e1 instanceof Player)){
-					Random rand = new Random();
+					Random rand = random;
 					int eRank = ((Mob)e).getRank();
 					int e1Rank = ((Mob)e1).getRank();
 					if(eRank!=e1Rank){
@@ -585,13 +485,33 @@ public class Level {
 		}
 
 		if(eLoser instanceof Mob && eWinner instanceof Mob){
-			removeEntity(eLoser);
+			releaseEntity(eLoser);
 			((Mob)eWinner).rankUp();
 			if(((Mob)eWinner).getRank()>((Mob)this.boss).getRank()){
 				((Mob)this.boss).rankUp();
-				removeEntity(eWinner);
+				releaseEntity(eWinner);
+			}
+		}
+		if (enemyStore != null) {
+			enemyStore.tickAll();
+		}
+		if(mainLevel){
+			for (int area=1; area<=3; area++) {		// At most one orc an area a tick
+				ArrayList<Orc> areaOrcs = getAreaOrcs(area);
+				if (areaOrcs.size() < RESPAWN_POPULATION) {
+					this.respawnOrcs(areaOrcs, AREA_BOUNDARIES[area], AREA_RANKS[area]);
+				}
 			}
 		}
+		deferring = false;
+		applyPending();
+		Profiler.stop(Profiler.Phase.LEVEL_TICK, start);
+	}
+
+	/**
+	 * Ticks the animated tiles, once a game tick however many levels are ticked.
+	 */
+	public static void tickTiles() {
 		for (Tile t : Tile.tiles) {
 			if (t == null) {
 				break;
@@ -599,18 +519,15 @@ public class Level {
 				t.tick();
 			}
 		}
-		if(mainLevel){
-			if(this.area1Orcs.size()<50){
-				this.respawnOrcs(area1Orcs, 33, 1);
-			}
-			if(this.area2Orcs.size()<50){
-				this.respawnOrcs(area2Orcs, 117, 5);
-			}
-			if(this.area3Orcs.size()<50){
-				this.respawnOrcs(area3Orcs, 200, 10);
-			}
+	}
+
+	/**
+	 * Records the current position of every entity to interpolate rendering from.
+	 */
+	public void storePositions() {
+		for (Entity e : entities) {
+			e.storePosition();
 		}
-	
 	}
 
 	/**
@@ -620,12 +537,54 @@ public class Level {
 	 */
 
 	public Entity getTouching(Entity entity) {
-		for (Entity e : entities) {
-			if(entity.isTouching(e) && entity != e) {
-				return e;
+		long start = Profiler.start();
+		Entity touching = grid == null ? null : grid.getTouching(entity);
+		Profiler.stop(Profiler.Phase.TOUCHING, start);
+		return touching;
+	}
+
+	/**
+	 * Finds the entities on the level within a distance of a point.
+	 * @param x 		The x coordinate of the point.
+	 * @param y 		The y coordinate of the point.
+	 * @param radius 	The distance from the point in pixels, inclusive.
+	 * @param result 	List the entities found are added to, in no particular order.
+	 * @return The result list.
+	 */
+	public List<Entity> getEntitiesInRadius(int x, int y, int radius, List<Entity> result) {
+		return grid == null ? result : grid.getInRadius(x, y, radius, result);
+	}
+
+	/**
+	 * Finds the entities on the level positioned inside a rectangle.
+	 * @param x0 		The left edge of the rectangle, inclusive.
+	 * @param y0 		The top edge of the rectangle, inclusive.
+	 * @param x1 		The right edge of the rectangle, exclusive.
+	 * @param y1 		The bottom edge of the rectangle, exclusive.
+	 * @param result 	List the entities found are added to, in no particular order.
+	 * @return The result list.
+	 */
+	public List<Entity> getEntitiesInRect(int x0, int y0, int x1, int y1, List<Entity> result) {
+		return grid == null ? result : grid.getInRect(x0, y0, x1, y1, result);
+	}
+
+	/**
+	 * Refiles an entity in the spatial grid after its position changed.
+	 * @param entity 	The entity that moved.
+	 */
+	public void entityMoved(Entity entity) {
+		if (grid != null) {
+			grid.update(entity);
+		}
+		if (entity instanceof Orc && ((Orc)entity).areaSlot >= 0) {
+			Orc orc = (Orc)entity;
+			int quadrant = quadrantOf(orc.area, orc.x, orc.y);
+			if (quadrant != orc.quadrant) {
+				quadrantOrcs[orc.area * 4 + orc.quadrant]--;
+				quadrantOrcs[orc.area * 4 + quadrant]++;
+				orc.quadrant = quadrant;
 			}
 		}
-		return null;
 	}
 
 	/**
@@ -635,6 +594,7 @@ public class Level {
 	 * @param yOffset 	The y offset of the tiles to be rendered.
 	 */
 	public void renderTiles(Screen screen, int xOffset, int yOffset) {
+		long start = Profiler.start();
 		if (xOffset<0) xOffset = 0;
 		if (xOffset>((width<<3)-screen.width)) xOffset = ((width<<3)-screen.width);
 		if (yOffset<0) yOffset = 0;
@@ -642,11 +602,157 @@ public class Level {
 
 		screen.setOffset(xOffset, yOffset);
 
-		for (int y=(yOffset >> 3); y<(yOffset + screen.height>>3) + 1; y++) {
-			for (int x=(xOffset >>3); x<(xOffset + screen.width>>3) + 1; x++) {
-				getTile(x,y).render(screen, this, x<<3,y<<3);
+		int xStart = xOffset >> 3;
+		int xEnd = (xOffset + screen.width >> 3) + 1;
+		int yStart = yOffset >> 3;
+		int yEnd = (yOffset + screen.height >> 3) + 1;
+
+		// Tiles outside the level are only in view when the level is smaller than the screen
+		if (xStart < 0 || yStart < 0 || xEnd > width || yEnd > height) {
+			for (int y=yStart; y<yEnd; y++) {
+				for (int x=xStart; x<xEnd; x++) {
+					if (0 > x || x >= width || 0 > y || y >= height) {
+						getTile(x,y).render(screen, this, x<<3, y<<3);
+					}
+				}
+			}
+		}
+
+		if (chunks == null) {
+			chunksX = (width + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+			chunks = new Chunk[chunksX * ((height + CHUNK_SIZE - 1) >> CHUNK_SHIFT)];
+		}
+
+		// Reuse the last frame's background when the camera only moved a little, otherwise redraw all of it
+		int dx = xOffset - screen.backgroundX;
+		int dy = yOffset - screen.backgroundY;
+		if (screen.backgroundOwner == this && !backgroundChanged && Math.abs(dx) < screen.width && Math.abs(dy) < screen.height) {
+			if (dx != 0 || dy != 0) {
+				screen.scrollBackground(dx, dy);
+				if (dx > 0) fillBackground(screen, screen.width - dx, 0, dx, screen.height);
+				if (dx < 0) fillBackground(screen, 0, 0, -dx, screen.height);
+				if (dy > 0) fillBackground(screen, 0, screen.height - dy, screen.width, dy);
+				if (dy < 0) fillBackground(screen, 0, 0, screen.width, -dy);
+			}
+		} else {
+			screen.backgroundOwner = this;
+			screen.backgroundX = xOffset;
+			screen.backgroundY = yOffset;
+			backgroundChanged = false;
+			fillBackground(screen, 0, 0, screen.width, screen.height);
+		}
+		screen.drawBackground();
+
+		int cxEnd = (Math.min(xEnd, width) - 1) >> CHUNK_SHIFT;
+		int cyEnd = (Math.min(yEnd, height) - 1) >> CHUNK_SHIFT;
+		for (int cy=Math.max(yStart, 0) >> CHUNK_SHIFT; cy<=cyEnd; cy++) {
+			for (int cx=Math.max(xStart, 0) >> CHUNK_SHIFT; cx<=cxEnd; cx++) {
+				Chunk chunk = getChunk(screen, cx, cy);
+				for (int i=0; i<chunk.animated.length; i++) {
+					int x = chunk.animated[i] % width;
+					int y = chunk.animated[i] / width;
+					getTile(x,y).render(screen, this, x<<3, y<<3);
+				}
+			}
+		}
+		Profiler.stop(Profiler.Phase.RENDER_TILES, start);
+	}
+
+	/**
+	 * Copies the static tiles from the chunks into a region of the screen's background.
+	 * @param screen 	Screen whose background is to be filled, already at the level's offset.
+	 * @param sx 		The x coordinate of the region on the screen.
+	 * @param sy 		The y coordinate of the region on the screen.
+	 * @param w 		Width of the region.
+	 * @param h 		Height of the region.
+	 */
+	private void fillBackground(Screen screen, int sx, int sy, int w, int h) {
+		int lx = screen.xOffset + sx;
+		int ly = screen.yOffset + sy;
+		if (lx < 0 || ly < 0 || lx + w > (width << 3) || ly + h > (height << 3)) { // Outside the level is left to the VOID tiles
+			for (int y=sy; y<sy+h; y++) {
+				Arrays.fill(screen.background, sx + y * screen.width, sx + w + y * screen.width, (byte) Screen.TRANSPARENT);
+			}
+		}
+
+		int chunkPixels = CHUNK_SIZE << 3;
+		int xStart = Math.max(lx, 0);
+		int xEnd = Math.min(lx + w, width << 3);
+		int yStart = Math.max(ly, 0);
+		int yEnd = Math.min(ly + h, height << 3);
+		for (int cy=yStart / chunkPixels; cy * chunkPixels < yEnd; cy++) {
+			for (int cx=xStart / chunkPixels; cx * chunkPixels < xEnd; cx++) {
+				Chunk chunk = getChunk(screen, cx, cy);
+				int x0 = Math.max(xStart, cx * chunkPixels);
+				int x1 = Math.min(xEnd, cx * chunkPixels + chunk.width);
+				int y0 = Math.max(yStart, cy * chunkPixels);
+				int y1 = Math.min(yEnd, cy * chunkPixels + chunk.height);
+				for (int y=y0; y<y1; y++) {
+					System.arraycopy(chunk.pixels, (x0 - cx * chunkPixels) + (y - cy * chunkPixels) * chunk.width,
+							screen.background, (x0 - screen.xOffset) + (y - screen.yOffset) * screen.width, x1 - x0);
+				}
+			}
+		}
+		screen.backgroundChanged();
+	}
+
+	/**
+	 * Returns a chunk of static tiles, rasterizing it if it is not cached.
+	 * @param screen 	Screen to resolve the tile sprites with.
+	 * @param cx 		The x coordinate of the chunk.
+	 * @param cy 		The y coordinate of the chunk.
+	 * @return The rasterized chunk.
+	 */
+	private Chunk getChunk(Screen screen, int cx, int cy) {
+		Chunk chunk = chunks[cx + cy * chunksX];
+		if (chunk == null) {
+			chunk = rasterizeChunk(screen, cx, cy);
+			chunks[cx + cy * chunksX] = chunk;
+		}
+		return chunk;
+	}
+
+	/**
+	 * Pre-rasterizes the static tiles of a chunk, leaving the animated tiles to be rendered every frame.
+	 * @param screen 	Screen to resolve the tile sprites with.
+	 * @param cx 		The x coordinate of the chunk.
+	 * @param cy 		The y coordinate of the chunk.
+	 * @return The rasterized chunk.
+	 */
+	private Chunk rasterizeChunk(Screen screen, int cx, int cy) {
+		Chunk chunk = new Chunk();
+		int xTileStart = cx << CHUNK_SHIFT;
+		int yTileStart = cy << CHUNK_SHIFT;
+		int xTiles = Math.min(CHUNK_SIZE, width - xTileStart);
+		int yTiles = Math.min(CHUNK_SIZE, height - yTileStart);
+		chunk.width = xTiles << 3;
+		chunk.height = yTiles << 3;
+		chunk.pixels = new byte[chunk.width * chunk.height];
+
+		int numAnimated = 0;
+		int[] animated = new int[xTiles * yTiles];
+		for (int ty=0; ty<yTiles; ty++) {
+			for (int tx=0; tx<xTiles; tx++) {
+				int index = (xTileStart + tx) + (yTileStart + ty) * width;
+				Tile tile = Tile.tiles[tiles[index]];
+				if (tile.isAnimated() || !(tile instanceof BaseTile)) {
+					animated[numAnimated++] = index;
+					for (int y=0; y<8; y++) {
+						for (int x=0; x<8; x++) {
+							chunk.pixels[(tx<<3) + x + ((ty<<3) + y) * chunk.width] = (byte) Screen.TRANSPARENT;
+						}
+					}
+				} else {
+					byte[] sprite = screen.getSprite(((BaseTile)tile).getTileId(), ((BaseTile)tile).getTileColor(), 0x00, 1);
+					for (int y=0; y<8; y++) {
+						System.arraycopy(sprite, y<<3, chunk.pixels, (tx<<3) + ((ty<<3) + y) * chunk.width, 8);
+					}
+				}
 			}
 		}
+		chunk.animated = new int[numAnimated];
+		System.arraycopy(animated, 0, chunk.animated, 0, numAnimated);
+		return chunk;
 	}
 
 	/**
@@ -654,11 +760,118 @@ public class Level {
 	 * @param screen 	Screen to render the entities onto.
 	 */
 	public void renderEntities(Screen screen) {
+		renderEntities(screen, 1);
+	}
+
+	/**
+	 * Renders the entities on the screen at their positions between the last two ticks.
+	 * Entities too far from the screen for their sprites to show are skipped, and the rest are drawn from the top of the screen down so lower entities overlap higher ones.
+	 * @param screen 	Screen to render the entities onto.
+	 * @param alpha 	Fraction of the way from the previous tick to the current one.
+	 */
+	public void renderEntities(Screen screen, double alpha) {
+		long start = Profiler.start();
+		int x0 = screen.xOffset;
+		int y0 = screen.yOffset;
+		int x1 = x0 + screen.width;
+		int y1 = y0 + screen.height;
+		int n = 0;
+		int minY = Integer.MAX_VALUE;
+		int maxY = Integer.MIN_VALUE;
 		for (Entity e : entities) {
-			e.render(screen);
+			int x = e.getRenderX(alpha);
+			int y = e.getRenderY(alpha);
+			int reach = e.getRenderReach();
+			if (x + reach < x0 || x - reach >= x1 || y + reach < y0 || y - reach >= y1) {
+				continue;
+			}
+			if (n == drawList.length) {
+				growDrawList();
+			}
+			drawList[n] = e;
+			drawX[n] = x;
+			drawY[n] = y;
+			drawOrder[n] = n;
+			if (y < minY) minY = y;
+			if (y > maxY) maxY = y;
+			n++;
+		}
+		drawn = n;
+		culled = entities.size() - n;
+		sortDrawOrder(n, minY, maxY);
+		for (int i=0; i<n; i++) {
+			int k = drawOrder[i];
+			drawList[k].render(screen, drawX[k], drawY[k]);
+		}
+		for (int i=0; i<n; i++) {
+			drawList[i] = null;
+		}
+		if (enemyStore != null) {
+			enemyStore.render(screen);
+		}
+		Profiler.stop(Profiler.Phase.RENDER_ENTITIES, start);
+	}
+
+	/**
+	 * Doubles the room in the draw list.
+	 */
+	private void growDrawList() {
+		int capacity = drawList.length * 2;
+		drawList = Arrays.copyOf(drawList, capacity);
+		drawX = Arrays.copyOf(drawX, capacity);
+		drawY = Arrays.copyOf(drawY, capacity);
+		drawOrder = Arrays.copyOf(drawOrder, capacity);
+		drawSorted = new int[capacity];
+	}
+
+	/**
+	 * Sorts the draw order by y with a radix sort, a byte of y at a time, keeping entities at the same y in entity list order.
+	 * @param n 	The number of entities in the draw list.
+	 * @param minY 	The smallest y in the draw list.
+	 * @param maxY 	The largest y in the draw list.
+	 */
+	private void sortDrawOrder(int n, int minY, int maxY) {
+		if (n < 2) {
+			return;
+		}
+		int range = maxY - minY;
+		for (int shift=0; shift<32 && (range >>> shift) != 0; shift+=8) {
+			Arrays.fill(drawCounts, 0);
+			for (int i=0; i<n; i++) {
+				drawCounts[((drawY[drawOrder[i]] - minY) >>> shift) & 255]++;
+			}
+			int total = 0;
+			for (int k=0; k<256; k++) {
+				int count = drawCounts[k];
+				drawCounts[k] = total;
+				total += count;
+			}
+			for (int i=0; i<n; i++) {
+				int index = drawOrder[i];
+				drawSorted[drawCounts[((drawY[index] - minY) >>> shift) & 255]++] = index;
+			}
+			int[] swap = drawOrder;
+			drawOrder = drawSorted;
+			drawSorted = swap;
 		}
 	}
 
+	/**
+	 * Returns the number of entities rendered in the last frame.
+	 * @return The number of entities drawn.
+	 */
+	public int getDrawn() {
+		return drawn;
+	}
+
+	/**
+	 * Returns the number of entities skipped in the last frame for being off the screen.
+	 * @return The number of entities culled.
+	 */
+	public int getCulled() {
+		return culled;
+	}
+
 	/**
 	 * Returns the tile at the given coordinate
 	 * @param x 	The x coordinate of the tile to be returned.
@@ -671,132 +884,463 @@ public class Level {
 	}
 
 	/**
-	 * Adds an entity to the level.
-	 * @param entity 	The entity to be added to the level.
+	 * Returns the collision flags of a kind of tile.
+	 * @param tile 	The tile to get the flags of.
+	 * @return The TILE flags of the tile or'ed together.
 	 */
-	public void addEntity(Entity entity) {
-		this.entities.add(entity);
-		if(entity instanceof Orc){								//adds orcs to their proper arraylist based on starting location
-			if((entity.x)<65*8 && (entity.x)>8){
-				this.area1Orcs.add((Orc)entity);
+	private static int flagsOf(Tile tile) {
+		int flags = 0;
+		if (tile.isSolid()) flags |= TILE_SOLID;
+		if (tile == Tile.WATER) flags |= TILE_WATER;
+		if (tile == Tile.WOOD) flags |= TILE_BLOCKS_ORCS;
+		return flags;
+	}
+
+	/**
+	 * Returns the collision flags of the tile at the given coordinate.
+	 * @param x 	The x coordinate of the tile.
+	 * @param y 	The y coordinate of the tile.
+	 * @return The TILE flags of the tile or'ed together, those of VOID outside the level.
+	 */
+	public int getTileFlags(int x, int y) {
+		if (0 > x || x >= width || 0 > y || y >= height) return flagsOf(Tile.VOID);
+		if (tileFlags == null) {
+			tileFlags = new byte[width*height];
+			for (int i=0; i<tileFlags.length; i++) {
+				tileFlags[i] = (byte) flagsOf(Tile.tiles[tiles[i]]);
+			}
+		}
+		return tileFlags[x+y*width];
+	}
+
+	/**
+	 * Checks if any tile in a rectangle of tiles has one of the given flags.
+	 * @param x0 	The x coordinate of the first tile column.
+	 * @param y0 	The y coordinate of the first tile row.
+	 * @param x1 	The x coordinate of the last tile column, inclusive.
+	 * @param y1 	The y coordinate of the last tile row, inclusive.
+	 * @param mask 	The TILE flags to look for or'ed together.
+	 * @return A boolean, true if a tile in the rectangle has one of the flags, false otherwise.
+	 */
+	public boolean hasTileFlags(int x0, int y0, int x1, int y1, int mask) {
+		for (int y=y0; y<=y1; y++) {
+			for (int x=x0; x<=x1; x++) {
+				if ((getTileFlags(x, y) & mask) != 0) {
+					return true;
+				}
 			}
-			else if((entity.x)>84*8 && (entity.x)<148*8){
-				this.area2Orcs.add((Orc)entity);
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if a hitbox moving along one or both axes would run into a tile with one of the given flags.
+	 * The hitbox only enters new tiles along its leading edge, so only those tiles are checked, and none if no tile boundary is crossed.
+	 * Tiles the hitbox already overlaps never block, so a mob spawned against a wall can still move away from it.
+	 * @param x0 	The left edge of the hitbox in pixels, inclusive.
+	 * @param y0 	The top edge of the hitbox in pixels, inclusive.
+	 * @param x1 	The right edge of the hitbox in pixels, inclusive.
+	 * @param y1 	The bottom edge of the hitbox in pixels, inclusive.
+	 * @param xa 	The number of pixels the hitbox would move along x.
+	 * @param ya 	The number of pixels the hitbox would move along y, after moving along x.
+	 * @param mask 	The TILE flags that block the move or'ed together.
+	 * @return A boolean, true if the move is blocked, false otherwise.
+	 */
+	public boolean isMoveBlocked(int x0, int y0, int x1, int y1, int xa, int ya, int mask) {
+		if (xa != 0) {
+			int edge = xa > 0 ? x1 : x0;
+			int from = edge >> 3;
+			int to = (edge + xa) >> 3;
+			if (from != to && hasTileFlags(Math.min(from + 1, to), y0 >> 3, Math.max(from - 1, to), y1 >> 3, mask)) {
+				return true;
 			}
-			else if((entity.x)>167*8 && (entity.x)<232*8){
-				this.area3Orcs.add((Orc)entity);
+		}
+		if (ya != 0) {
+			int edge = ya > 0 ? y1 : y0;
+			int from = edge >> 3;
+			int to = (edge + ya) >> 3;
+			if (from != to && hasTileFlags((x0 + xa) >> 3, Math.min(from + 1, to), (x1 + xa) >> 3, Math.max(from - 1, to), mask)) {
+				return true;
 			}
 		}
-		entity.setLevel(this);
+		return false;
+	}
+
+	/**
+	 * Turns sleeping on or off for the level's enemies far from the player.
+	 * @param enabled 	True to let distant enemies sleep, false to tick every entity every tick.
+	 */
+	public void setSleepEnabled(boolean enabled) {
+		if (!enabled) {
+			activity = null;
+		} else if (activity == null) {
+			activity = new ActivityRegions(width << 3, height << 3);
+		}
+	}
+
+	/**
+	 * Returns the level's activity regions, which count the entities ticked and asleep in the last tick.
+	 * @return The activity regions, null if sleeping is turned off.
+	 */
+	public ActivityRegions getActivity() {
+		return activity;
+	}
+
+	/**
+	 * Wakes the level around a point for something happening there, if sleeping is turned on.
+	 * @param x 		The x coordinate of the point in pixels.
+	 * @param y 		The y coordinate of the point in pixels.
+	 * @param radius 	The distance around the point to wake in pixels.
+	 */
+	public void wake(int x, int y, int radius) {
+		if (activity != null) {
+			activity.wake(x, y, radius);
+		}
+	}
+
+	/**
+	 * Seeds the random numbers of the level's fights and respawns and of every entity on it.
+	 * The same seed, entities and player input give the same game, however the entities' thinking is spread over threads.
+	 * @param seed 	The seed.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		this.random = new Random(seed);
+		for (Entity e : entities) {
+			e.seedRandom(entitySeed(e));
+		}
+	}
+
+	/**
+	 * Returns the seed of an entity's random numbers, made from the level's seed and when the entity was added.
+	 * @param entity 	The entity.
+	 * @return The entity's seed.
+	 */
+	private long entitySeed(Entity entity) {
+		return seed + entity.gridOrder * 0x9E3779B97F4A7C15L;
+	}
+
+	/**
+	 * Sets the pool the entities think on in parallel.
+	 * @param pool 	The pool to think on, or null to think on the thread ticking the level.
+	 */
+	public void setThinkPool(ForkJoinPool pool) {
+		this.thinkPool = pool;
+	}
+
+	/**
+	 * Returns the level's store of wandering enemies, making an empty one the first time.
+	 * @return The level's enemy store.
+	 */
+	public EnemyStore getEnemyStore() {
+		if (enemyStore == null) {
+			enemyStore = new EnemyStore(this, new Random().nextLong());
+		}
+		return enemyStore;
 	}
 
 	/**
-	 * Removes entity from the level.
+	 * Adds an entity to the level, or queues it to be added at the end of the tick if the level is ticking.
+	 * @param entity 	The entity to be added to the level.
+	 */
+	public void addEntity(Entity entity) {
+		if (deferring) {
+			queue(entity, ADD);
+		} else {
+			add(entity);
+		}
+	}
+
+	/**
+	 * Removes entity from the level, or queues it to be removed at the end of the tick if the level is ticking.
 	 * @param entity 	Removes given entity from the level, if it is there.
 	 * @return An entity, if the entity was in the level and successfully removed, otherwise null.
 	 */
 	public Entity removeEntity(Entity entity){
-		if(entity instanceof Orc){								//removes orcs from their proper arraylist based on death location
-			if((entity.x)<65*8 && (entity.x)>8){
-				this.area1Orcs.remove((Orc)entity);
+		if (!deferring) {
+			return remove(entity);
+		}
+		if (!contains(entity) && entity.pendingLevel != this) {
+			return null;
+		}
+		queue(entity, REMOVE);
+		return entity;
+	}
+
+	/**
+	 * Removes an entity that has left the game for good and gives it back to its pool, at the end of the tick if the level is ticking.
+	 * Nothing may use the entity afterwards.
+	 * @param entity 	The entity, which is only released if it was on the level.
+	 */
+	public void releaseEntity(Entity entity) {
+		if (!deferring) {
+			if (remove(entity) != null) {
+				Pools.release(entity);
+			}
+		} else if (contains(entity) || entity.pendingLevel == this) {
+			queue(entity, RELEASE);
+		}
+	}
+
+	/**
+	 * Checks if an entity is on the level, not counting entities queued to be added.
+	 * @param entity 	The entity to look for.
+	 * @return A boolean, true if the entity is on the level, false otherwise.
+	 */
+	public boolean contains(Entity entity) {
+		int slot = entity.levelSlot;
+		return slot >= 0 && slot < entities.size() && entities.get(slot) == entity;
+	}
+
+	/**
+	 * Queues an entity to be added or removed at the end of the tick.
+	 * @param entity 	The entity.
+	 * @param op 		ADD to add the entity, REMOVE to remove it, or RELEASE to remove it and give it back to its pool.
+	 */
+	private void queue(Entity entity, byte op) {
+		if (numPending == pendingEntities.length) {
+			pendingEntities = Arrays.copyOf(pendingEntities, numPending * 2);
+			pendingOps = Arrays.copyOf(pendingOps, numPending * 2);
+		}
+		pendingEntities[numPending] = entity;
+		pendingOps[numPending] = op;
+		numPending++;
+		if (op == ADD) {
+			entity.pendingLevel = this;
+		} else if (entity.pendingLevel == this) {
+			entity.pendingLevel = null;
+		}
+	}
+
+	/**
+	 * Adds and removes the entities queued during the tick, in the order they were queued.
+	 */
+	private void applyPending() {
+		for (int i=0; i<numPending; i++) {
+			Entity entity = pendingEntities[i];
+			pendingEntities[i] = null;
+			if (entity.pendingLevel == this) {
+				entity.pendingLevel = null;
+			}
+			if (pendingOps[i] == ADD) {
+				add(entity);
+			} else if (remove(entity) != null && pendingOps[i] == RELEASE) {
+				Pools.release(entity);
+			}
+		}
+		numPending = 0;
+	}
+
+	/**
+	 * Adds an entity to the end of the entity list and to its respawn area.
+	 * @param entity 	The entity to be added to the level, which must not be on any level.
+	 */
+	private void add(Entity entity) {
+		if (entity.levelSlot >= 0) {
+			throw new RuntimeException("Entity added to a level while it is on one");
+		}
+		entity.levelSlot = entities.size();
+		this.entities.add(entity);
+		if(entity instanceof Orc){								//adds orcs to their proper arraylist based on starting location
+			Orc orc = (Orc)entity;
+			orc.area = areaAt(entity.x);
+			ArrayList<Orc> areaOrcs = getAreaOrcs(orc.area);
+			if (areaOrcs != null) {
+				orc.areaSlot = areaOrcs.size();
+				areaOrcs.add(orc);
+				orc.quadrant = quadrantOf(orc.area, orc.x, orc.y);
+				quadrantOrcs[orc.area * 4 + orc.quadrant]++;
+			}
+		}
+		entity.setLevel(this);
+		entity.storePosition();
+		if (grid == null) {
+			grid = new SpatialGrid(width << 3, height << 3);
+		}
+		entity.gridOrder = nextGridOrder++;
+		entity.seedRandom(entitySeed(entity));
+		grid.add(entity);
+	}
+
+	/**
+	 * Removes an entity by moving the last entity into its slot, and from the respawn area it was added to.
+	 * @param entity 	The entity to be removed.
+	 * @return The entity, if it was on the level, otherwise null.
+	 */
+	private Entity remove(Entity entity) {
+		if (!contains(entity)) {
+			return null;
+		}
+		int slot = entity.levelSlot;
+		Entity last = entities.remove(entities.size() - 1);
+		if (last != entity) {
+			entities.set(slot, last);
+			last.levelSlot = slot;
+		}
+		entity.levelSlot = -1;
+		if(entity instanceof Orc){								//removes orcs from the area they were added to, wherever they are now
+			Orc orc = (Orc)entity;
+			ArrayList<Orc> areaOrcs = getAreaOrcs(orc.area);
+			if (areaOrcs != null && orc.areaSlot >= 0 && orc.areaSlot < areaOrcs.size() && areaOrcs.get(orc.areaSlot) == orc) {
+				Orc lastOrc = areaOrcs.remove(areaOrcs.size() - 1);
+				if (lastOrc != orc) {
+					areaOrcs.set(orc.areaSlot, lastOrc);
+					lastOrc.areaSlot = orc.areaSlot;
+				}
+				quadrantOrcs[orc.area * 4 + orc.quadrant]--;
 			}
-			else if((entity.x)>84*8 && (entity.x)<148*8){
-				this.area2Orcs.remove((Orc)entity);
+			orc.area = 0;
+			orc.areaSlot = -1;
+			orc.quadrant = -1;
+		}
+		if (grid != null) {
+			grid.remove(entity);
+		}
+		return entity;
+	}
+
+	/**
+	 * Returns the respawn area of the main level an x coordinate is in.
+	 * @param x 	The x coordinate in pixels.
+	 * @return The area, 1 to 3, or 0 if the coordinate is between areas.
+	 */
+	private int areaAt(int x) {
+		if(x<65*8 && x>8){
+			return 1;
+		} else if(x>84*8 && x<148*8){
+			return 2;
+		} else if(x>167*8 && x<232*8){
+			return 3;
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the list of orcs in a respawn area.
+	 * @param area 	The area, 1 to 3.
+	 * @return The orcs in the area, null if there is no such area.
+	 */
+	private ArrayList<Orc> getAreaOrcs(int area) {
+		switch (area) {
+			case 1: return area1Orcs;
+			case 2: return area2Orcs;
+			case 3: return area3Orcs;
+			default: return null;
+		}
+	}
+
+	/**
+	 * Removes every entity from the level, and drops any adds and removes still queued.
+	 */
+	public void clearEntities() {
+		for (Entity e : entities) {
+			e.levelSlot = -1;
+			if (e instanceof Orc) {
+				((Orc)e).area = 0;
+				((Orc)e).areaSlot = -1;
+				((Orc)e).quadrant = -1;
 			}
-			else if((entity.x)>167*8 && (entity.x)<232*8){
-				this.area3Orcs.remove((Orc)entity);
+		}
+		entities.clear();
+		Arrays.fill(quadrantOrcs, 0);
+		area1Orcs.clear();
+		area2Orcs.clear();
+		area3Orcs.clear();
+		for (int i=0; i<numPending; i++) {
+			if (pendingEntities[i].pendingLevel == this) {
+				pendingEntities[i].pendingLevel = null;
 			}
+			pendingEntities[i] = null;
+		}
+		numPending = 0;
+		if (grid != null) {
+			grid.clear();
 		}
-		if(entities.remove(entity))
-			return entity;
-		return null;
 	}
 
 	/**
-	 * Respawns orcs on the level randomly
+	 * Respawns an orc in the least populated quadrant of an area, on a random walkable tile
 	 * @param orcsInArea, ArrayList of Orcs containing the orcs in the area that respawning it occuring
 	 * @param xGridBoundary, int to mark the boundary of the grid separating the different grids in the area for respawning
 	 * @param rank, int telling which rank to set the new orc at
 	 */ 
 	public void respawnOrcs(ArrayList<Orc> orcsInArea, int xGridBoundary, int rank) {
-		int[] gridPopulation = new int[4];
-		Orc tempOrc;
-		int leastPopGrid;
-		int orcX;
-		int orcY;
-		boolean orcPlaced;
-		Random rand = new Random();
-
-		leastPopGrid = 0;
-		orcPlaced = false;
-		for(int k = 0; k<orcsInArea.size(); k++){
-			tempOrc = orcsInArea.get(k);
-			if((tempOrc.x)<xGridBoundary*8 && (tempOrc.y)<32*8){
-				gridPopulation[0] ++;
-			}
-			else if((tempOrc.x)>xGridBoundary*8 && (tempOrc.y)<32*8){
-				gridPopulation[1] ++;
-			}
-			else if((tempOrc.x)<xGridBoundary*8 && (tempOrc.y)>32*8){
-				gridPopulation[2] ++;
-			}
-			else if((tempOrc.x)>xGridBoundary*8 && (tempOrc.y)>32*8){
-				gridPopulation[3] ++;
-			}
+		int area = orcsInArea == area1Orcs ? 1 : (orcsInArea == area2Orcs ? 2 : (orcsInArea == area3Orcs ? 3 : 0));
+		if (area == 0) {
+			return;
 		}
+		int leastPopGrid = 0;
 		for(int k = 1; k<4; k++){
-			if(gridPopulation[k]<gridPopulation[leastPopGrid]){
+			if(quadrantOrcs[area*4+k]<quadrantOrcs[area*4+leastPopGrid]){
 				leastPopGrid = k;
 			}
 		}
-		if(leastPopGrid==0){
-			while(!orcPlaced){
-				orcX = rand.nextInt(32)+(xGridBoundary-32);
-				orcY = rand.nextInt(32)+1;
-				if(getTile(orcX, orcY).getId()==2){
-					Entity e = new Orc(this, orcX*8, orcY*8);
-					this.addEntity(e);
-					((Mob)e).setRank(rank);
-					orcPlaced = true;
-				}
+		if (spawnBoundaries[area] != xGridBoundary) {
+			spawnBoundaries[area] = xGridBoundary;
+			for (int k=0; k<4; k++) {
+				spawnTiles[area*4+k] = null;
 			}
 		}
-		else if(leastPopGrid==1){
-			while(!orcPlaced){
-				orcX = rand.nextInt(32)+xGridBoundary;
-				orcY = rand.nextInt(32)+1;
-				if(getTile(orcX, orcY).getId()==2){
-					Entity e = new Orc(this, orcX*8, orcY*8);
-					this.addEntity(e);
-					((Mob)e).setRank(rank);
-					orcPlaced = true;
-				}
-			}
+		int[] tiles = spawnTiles[area*4+leastPopGrid];
+		if (tiles == null) {
+			int x0 = (leastPopGrid & 1) == 0 ? xGridBoundary-32 : xGridBoundary;
+			int y0 = leastPopGrid < 2 ? 1 : 32;
+			tiles = walkableTiles(x0, y0, x0+32, y0+32);
+			spawnTiles[area*4+leastPopGrid] = tiles;
 		}
-		else if(leastPopGrid==2){
-			while(!orcPlaced){
-				orcX = rand.nextInt(32)+(xGridBoundary-32);
-				orcY = rand.nextInt(32)+32;
-				if(getTile(orcX, orcY).getId()==2){
-					Entity e = new Orc(this, orcX*8, orcY*8);
-					this.addEntity(e);
-					((Mob)e).setRank(rank);
-					orcPlaced = true;
-				}
+		if (tiles.length == 0) {
+			return;
+		}
+		int tile = tiles[random.nextInt(tiles.length)];
+		Entity e = Pools.acquireOrc(this, (tile % width)*8, (tile / width)*8);
+		this.addEntity(e);
+		((Mob)e).setRank(rank);
+	}
+
+	/**
+	 * Returns the quadrant of an area a point is in, split at the area's boundary column and halfway down the level.
+	 * @param area 	The area, 1 to 3.
+	 * @param x 	The x coordinate in pixels.
+	 * @param y 	The y coordinate in pixels.
+	 * @return The quadrant, 0 top left, 1 top right, 2 bottom left, 3 bottom right.
+	 */
+	private int quadrantOf(int area, int x, int y) {
+		return (x < AREA_BOUNDARIES[area]*8 ? 0 : 1) + (y < 32*8 ? 0 : 2);
+	}
+
+	/**
+	 * Returns the number of orcs in a quadrant of an area.
+	 * @param area 		The area, 1 to 3.
+	 * @param quadrant 	The quadrant, 0 top left, 1 top right, 2 bottom left, 3 bottom right.
+	 * @return The number of orcs.
+	 */
+	public int getQuadrantPopulation(int area, int quadrant) {
+		return quadrantOrcs[area*4+quadrant];
+	}
+
+	/**
+	 * Lists the tiles enemies can spawn on inside a rectangle.
+	 * @param x0 	The left column of the rectangle, inclusive.
+	 * @param y0 	The top row of the rectangle, inclusive.
+	 * @param x1 	The right column of the rectangle, exclusive.
+	 * @param y1 	The bottom row of the rectangle, exclusive.
+	 * @return The indices of the tiles, x + y * width.
+	 */
+	private int[] walkableTiles(int x0, int y0, int x1, int y1) {
+		int count = 0;
+		for (int y=y0; y<y1; y++) {
+			for (int x=x0; x<x1; x++) {
+				if (getTile(x, y).getId() == 2) count++;
 			}
 		}
-		else if(leastPopGrid==3){
-			while(!orcPlaced){
-				orcX = rand.nextInt(32)+xGridBoundary;
-				orcY = rand.nextInt(32)+32;
-				if(getTile(orcX, orcY).getId()==2){
-					Entity e = new Orc(this, orcX*8, orcY*8);
-					this.addEntity(e);
-					((Mob)e).setRank(rank);
-					orcPlaced = true;
-				}
+		int[] tiles = new int[count];
+		count = 0;
+		for (int y=y0; y<y1; y++) {
+			for (int x=x0; x<x1; x++) {
+				if (getTile(x, y).getId() == 2) tiles[count++] = x + y * width;
 			}
 		}
+		return tiles;
 	}
 
 	/**
@@ -805,29 +1349,23 @@ public class Level {
 	 * @param numEnemies 	The number of enemies to spawn
 	 */
 	public void spawn(int dungeonNum, int numEnemies){
-		Random rand = new Random();
-		boolean enemyPlaced = false;
-		int enemyX;
-		int enemyY;
-
+		if (dungeonSpawnTiles == null) {
+			dungeonSpawnTiles = walkableTiles(1, 1, width, height);
+		}
+		if (dungeonSpawnTiles.length == 0) {
+			return;
+		}
 		for(int i = 0; i<numEnemies; i++){
-			enemyPlaced=false;
-			while(!enemyPlaced){
-				enemyX = rand.nextInt(63)+1;
-				enemyY = rand.nextInt(63)+1;
-				if(getTile(enemyX,enemyY).getId() == 2){
-					if(dungeonNum == 1){
-						Entity e = new Bandit(this, enemyX*8, enemyY*8);
-						this.addEntity(e);
-						enemyPlaced=true;
-					}
-					else if(dungeonNum == 2){
-						Entity e = new Vampire(this, enemyX*8, enemyY*8);
-						this.addEntity(e);
-						enemyPlaced=true;
-					}
-
-				}
+			int tile = dungeonSpawnTiles[random.nextInt(dungeonSpawnTiles.length)];
+			int enemyX = tile % width;
+			int enemyY = tile / width;
+			if(dungeonNum == 1){
+				Entity e = new Bandit(this, enemyX*8, enemyY*8);
+				this.addEntity(e);
+			}
+			else if(dungeonNum == 2){
+				Entity e = new Vampire(this, enemyX*8, enemyY*8);
+				this.addEntity(e);
 			}
 		}
 	}
@@ -0,0 +1,232 @@
+package bgibbons.game.level;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import bgibbons.game.Profiler;
+import bgibbons.game.entities.Entity;
+
+/**
+ * Class to tick every loaded level each game tick, spreading the levels over a small pool of worker threads.
+ * Entities only move between levels through the transfer queue, which is applied at the barrier after every level has ticked.
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class LevelScheduler {
+
+	public static final int MAX_WORKERS = 3;	// Most worker threads, on top of the game thread
+
+	/**
+	 * A request to move an entity from one level to another.
+	 */
+	private static class Transfer {
+		public Entity entity;
+		public Level from;
+		public Level to;
+	}
+
+	private ArrayList<Level> levels = new ArrayList<Level>();
+	private ConcurrentLinkedQueue<Transfer> transfers = new ConcurrentLinkedQueue<Transfer>();
+
+	private Level[] ticking = new Level[0];		// Levels being ticked in the current tick
+	private int numTicking;
+	private AtomicInteger next = new AtomicInteger();		// Index of the next level in ticking to claim
+	private AtomicInteger remaining = new AtomicInteger();	// Levels in ticking not yet finished
+	private volatile Throwable failure;			// First exception or error thrown by a level in the current tick, rethrown on the game thread
+
+	private final Object lock = new Object();
+	private long generation = 0;	// Number of ticks handed to the workers, guarded by lock
+	private int busy = 0;			// Workers yet to finish the current tick, guarded by lock
+	private Thread[] workers;
+
+	/**
+	 * Constructor for the LevelScheduler object.
+	 * @param numWorkers 	The number of worker threads to start, 0 to tick every level on the calling thread.
+	 */
+	public LevelScheduler(int numWorkers) {
+		workers = new Thread[Math.max(0, Math.min(numWorkers, MAX_WORKERS))];
+		for (int i=0; i<workers.length; i++) {
+			workers[i] = new Thread(new Runnable() {
+				public void run() {
+					work();
+				}
+			}, "level-worker-" + i);
+			workers[i].setDaemon(true);
+			workers[i].start();
+		}
+	}
+
+	/**
+	 * Returns a scheduler with one worker for each spare processor, up to MAX_WORKERS.
+	 * @return The new scheduler.
+	 */
+	public static LevelScheduler forProcessors() {
+		return new LevelScheduler(Runtime.getRuntime().availableProcessors() - 1);
+	}
+
+	/**
+	 * Adds a level to be ticked.
+	 * @param level 	The level to add.
+	 */
+	public void add(Level level) {
+		levels.add(level);
+	}
+
+	/**
+	 * Stops ticking every level and drops any transfers not yet applied.
+	 */
+	public void clear() {
+		levels.clear();
+		transfers.clear();
+	}
+
+	/**
+	 * Returns the levels being ticked.
+	 * @return The levels being ticked.
+	 */
+	public ArrayList<Level> getLevels() {
+		return levels;
+	}
+
+	/**
+	 * Returns the number of worker threads.
+	 * @return The number of worker threads.
+	 */
+	public int getWorkers() {
+		return workers.length;
+	}
+
+	/**
+	 * Returns the id of a worker thread.
+	 * @param i 	Index of the worker, from 0 to getWorkers()-1.
+	 * @return The worker's thread id.
+	 */
+	public long getWorkerId(int i) {
+		return workers[i].getId();
+	}
+
+	/**
+	 * Ticks every level except one held still, then the animated tiles, then applies the transfers asked for meanwhile.
+	 * Must be called from the game thread, and returns once every level has finished.
+	 * @param held 	A level not to tick this tick, or null to tick them all.
+	 */
+	public void tick(Level held) {
+		long start = Profiler.start();
+		if (ticking.length < levels.size()) {
+			ticking = new Level[levels.size()];
+		}
+		numTicking = 0;
+		for (Level level : levels) {
+			if (level != held) {
+				ticking[numTicking++] = level;
+			}
+		}
+		next.set(0);
+		remaining.set(numTicking);
+		failure = null;
+		if (workers.length > 0 && numTicking > 1) {
+			synchronized (lock) {
+				generation++;
+				busy = workers.length;
+				lock.notifyAll();
+			}
+		}
+		tickLevels();
+		synchronized (lock) { // Wait for the workers too, so none is still claiming levels when the next tick starts
+			while (remaining.get() > 0 || busy > 0) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		for (int i=0; i<numTicking; i++) {
+			ticking[i] = null;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure != null) {
+			throw (RuntimeException) failure;
+		}
+		Level.tickTiles();
+		applyTransfers();
+		Profiler.stop(Profiler.Phase.LEVELS, start);
+	}
+
+	/**
+	 * Claims and ticks levels until none are left for this tick.
+	 */
+	private void tickLevels() {
+		int i;
+		while ((i = next.getAndIncrement()) < numTicking) {
+			try {
+				ticking[i].tickEntities();
+			} catch (RuntimeException | Error e) {
+				if (failure == null) failure = e;
+			} finally {
+				if (remaining.decrementAndGet() == 0) {
+					synchronized (lock) {
+						lock.notifyAll();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs on each worker thread, helping with every tick handed out.
+	 */
+	private void work() {
+		long seen = 0;
+		while (true) {
+			synchronized (lock) {
+				while (generation == seen) {
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				seen = generation;
+			}
+			tickLevels();
+			synchronized (lock) {
+				if (--busy == 0) {
+					lock.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Asks for an entity to be moved to another level at the next barrier.
+	 * Safe to call from any thread, including from inside a level's tick.
+	 * @param entity 	The entity to move.
+	 * @param from 		The level the entity is on, or null if it is on none.
+	 * @param to 		The level to move the entity to.
+	 */
+	public void transfer(Entity entity, Level from, Level to) {
+		Transfer transfer = new Transfer();
+		transfer.entity = entity;
+		transfer.from = from;
+		transfer.to = to;
+		transfers.add(transfer);
+	}
+
+	/**
+	 * Applies the transfers asked for so far, in the order they were asked for.
+	 * Must only be called from the game thread while no level is ticking.
+	 */
+	public void applyTransfers() {
+		Transfer transfer;
+		while ((transfer = transfers.poll()) != null) {
+			if (transfer.from != null) {
+				transfer.from.removeEntity(transfer.entity);
+			}
+			transfer.to.addEntity(transfer.entity);
+		}
+	}
+}
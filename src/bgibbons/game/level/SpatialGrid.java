@@ -0,0 +1,262 @@
+package bgibbons.game.level;
+
+import java.util.Arrays;
+import java.util.List;
+
+import bgibbons.game.entities.Entity;
+
+/**
+ * Class to index the entities of a level by position in a uniform grid of cells.
+ * Each cell holds a linked list of its entities through the grid fields on Entity, so moving between cells is O(1).
+ * @author agent
+ * @version 1.0 18 October 2026
+ */
+public class SpatialGrid {
+
+	public static final int CELL_SHIFT = 4;				// Cells are 16x16 pixels, two mobs across
+	public static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+	private int cellsX;			// Number of cells across the level
+	private int cellsY;			// Number of cells down the level
+	private Entity[] heads;		// First entity in each cell, null if empty
+	private int size;			// Number of entities in the grid
+	private Entity[] candidates = new Entity[64];	// Scratch list of entities near a touching query
+
+	/**
+	 * Constructor for the SpatialGrid object.
+	 * @param width 	Width of the level in pixels.
+	 * @param height 	Height of the level in pixels.
+	 */
+	public SpatialGrid(int width, int height) {
+		this.cellsX = Math.max(1, (width + CELL_SIZE - 1) >> CELL_SHIFT);
+		this.cellsY = Math.max(1, (height + CELL_SIZE - 1) >> CELL_SHIFT);
+		this.heads = new Entity[cellsX * cellsY];
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the cell column of an x coordinate, clamped to the grid so entities off the level still have a cell.
+	 * @param x 	The x coordinate in pixels.
+	 * @return The cell column.
+	 */
+	private int cellX(int x) {
+		int cx = x >> CELL_SHIFT;
+		return cx < 0 ? 0 : (cx >= cellsX ? cellsX - 1 : cx);
+	}
+
+	/**
+	 * Returns the cell row of a y coordinate, clamped to the grid so entities off the level still have a cell.
+	 * @param y 	The y coordinate in pixels.
+	 * @return The cell row.
+	 */
+	private int cellY(int y) {
+		int cy = y >> CELL_SHIFT;
+		return cy < 0 ? 0 : (cy >= cellsY ? cellsY - 1 : cy);
+	}
+
+	/**
+	 * Adds an entity to the cell at its position, taking it out of any grid it is still in first.
+	 * @param entity 	The entity to add.
+	 */
+	public void add(Entity entity) {
+		if (entity.grid != null) {
+			entity.grid.remove(entity);
+		}
+		entity.grid = this;
+		link(entity, cellX(entity.x) + cellY(entity.y) * cellsX);
+		size++;
+	}
+
+	/**
+	 * Removes an entity from the grid, using the cell it was last filed under rather than its current position.
+	 * @param entity 	The entity to remove.
+	 * @return A boolean, true if the entity was in the grid, false otherwise.
+	 */
+	public boolean remove(Entity entity) {
+		if (entity.grid != this) {
+			return false;
+		}
+		unlink(entity);
+		entity.grid = null;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Moves an entity to the cell at its current position if it has left its old one.
+	 * @param entity 	The entity that moved.
+	 */
+	public void update(Entity entity) {
+		if (entity.grid != this) {
+			return;
+		}
+		int cell = cellX(entity.x) + cellY(entity.y) * cellsX;
+		if (cell != entity.gridCell) {
+			unlink(entity);
+			link(entity, cell);
+		}
+	}
+
+	/**
+	 * Empties the grid.
+	 */
+	public void clear() {
+		for (int i=0; i<heads.length; i++) {
+			for (Entity e = heads[i]; e != null; ) {
+				Entity next = e.gridNext;
+				e.grid = null;
+				e.gridNext = null;
+				e.gridPrev = null;
+				e.gridCell = -1;
+				e = next;
+			}
+			heads[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of entities in the grid.
+	 * @return The number of entities in the grid.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds an entity to the front of a cell's list.
+	 * @param entity 	The entity to add.
+	 * @param cell 		The cell to add the entity to.
+	 */
+	private void link(Entity entity, int cell) {
+		entity.gridCell = cell;
+		entity.gridPrev = null;
+		entity.gridNext = heads[cell];
+		if (heads[cell] != null) heads[cell].gridPrev = entity;
+		heads[cell] = entity;
+	}
+
+	/**
+	 * Removes an entity from its cell's list.
+	 * @param entity 	The entity to remove.
+	 */
+	private void unlink(Entity entity) {
+		if (entity.gridPrev != null) entity.gridPrev.gridNext = entity.gridNext;
+		else heads[entity.gridCell] = entity.gridNext;
+		if (entity.gridNext != null) entity.gridNext.gridPrev = entity.gridPrev;
+		entity.gridNext = null;
+		entity.gridPrev = null;
+		entity.gridCell = -1;
+	}
+
+	/**
+	 * Finds the entity that the given entity is touching among the entities in the cells around it.
+	 * Entities on layers outside its mask are skipped while gathering, then the rest are tested in one pass.
+	 * When several are touching, the one with the lowest gridOrder wins, so the result does not depend on the order of the cells.
+	 * Level gives each entity the next gridOrder every time it is added, so this is the one that has been on the level longest.
+	 * @param entity 	The entity to check.
+	 * @return The touching entity with the lowest gridOrder, null if none.
+	 */
+	public Entity getTouching(Entity entity) {
+		int mask = entity.getCollisionMask();
+		if (mask == Entity.LAYER_NONE) {
+			return null;
+		}
+		int reach = entity.getHitRadius() + Entity.MAX_HIT_RADIUS;
+		int cx0 = cellX(entity.x - reach);
+		int cx1 = cellX(entity.x + reach);
+		int cy0 = cellY(entity.y - reach);
+		int cy1 = cellY(entity.y + reach);
+		int count = 0;
+		for (int cy=cy0; cy<=cy1; cy++) {
+			for (int cx=cx0; cx<=cx1; cx++) {
+				for (Entity e = heads[cx + cy * cellsX]; e != null; e = e.gridNext) {
+					if ((e.getCollisionLayer() & mask) != 0 && e != entity) {
+						if (count == candidates.length) candidates = Arrays.copyOf(candidates, count * 2);
+						candidates[count++] = e;
+					}
+				}
+			}
+		}
+		return firstTouching(entity, candidates, count);
+	}
+
+	/**
+	 * Tests a list of candidates against an entity's hit circle with integer squared distances.
+	 * @param entity 		The entity to check.
+	 * @param candidates 	Entities on layers in the entity's mask.
+	 * @param count 		The number of candidates in the list.
+	 * @return The touching candidate with the lowest gridOrder, null if none.
+	 */
+	private static Entity firstTouching(Entity entity, Entity[] candidates, int count) {
+		Entity touching = null;
+		int x = entity.x;
+		int y = entity.y;
+		int radius = entity.getHitRadius();
+		for (int i=0; i<count; i++) {
+			Entity e = candidates[i];
+			int dx = x - e.x;
+			int dy = y - e.y;
+			int reach = radius + e.getHitRadius();
+			if (dx*dx + dy*dy < reach*reach && (touching == null || e.gridOrder < touching.gridOrder)) {
+				touching = e;
+			}
+			candidates[i] = null;
+		}
+		return touching;
+	}
+
+	/**
+	 * Finds the entities within a distance of a point.
+	 * @param x 		The x coordinate of the point.
+	 * @param y 		The y coordinate of the point.
+	 * @param radius 	The distance from the point in pixels, inclusive.
+	 * @param result 	List the entities found are added to, in no particular order.
+	 * @return The result list.
+	 */
+	public List<Entity> getInRadius(int x, int y, int radius, List<Entity> result) {
+		long radiusSq = (long) radius * radius;
+		int cx0 = cellX(x - radius);
+		int cx1 = cellX(x + radius);
+		int cy0 = cellY(y - radius);
+		int cy1 = cellY(y + radius);
+		for (int cy=cy0; cy<=cy1; cy++) {
+			for (int cx=cx0; cx<=cx1; cx++) {
+				for (Entity e = heads[cx + cy * cellsX]; e != null; e = e.gridNext) {
+					long dx = e.x - x;
+					long dy = e.y - y;
+					if (dx*dx + dy*dy <= radiusSq) {
+						result.add(e);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the entities positioned inside a rectangle.
+	 * @param x0 		The left edge of the rectangle, inclusive.
+	 * @param y0 		The top edge of the rectangle, inclusive.
+	 * @param x1 		The right edge of the rectangle, exclusive.
+	 * @param y1 		The bottom edge of the rectangle, exclusive.
+	 * @param result 	List the entities found are added to, in no particular order.
+	 * @return The result list.
+	 */
+	public List<Entity> getInRect(int x0, int y0, int x1, int y1, List<Entity> result) {
+		int cx0 = cellX(x0);
+		int cx1 = cellX(x1 - 1);
+		int cy0 = cellY(y0);
+		int cy1 = cellY(y1 - 1);
+		for (int cy=cy0; cy<=cy1; cy++) {
+			for (int cx=cx0; cx<=cx1; cx++) {
+				for (Entity e = heads[cx + cy * cellsX]; e != null; e = e.gridNext) {
+					if (e.x >= x0 && e.x < x1 && e.y >= y0 && e.y < y1) {
+						result.add(e);
+					}
+				}
+			}
+		}
+		return result;
+	}
+}
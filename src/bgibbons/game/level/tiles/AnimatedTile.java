@@ -28,6 +28,14 @@ public class AnimatedTile extends BaseTile {
 		this.animationSwitchDelay = animationSwitchDelay;
 	}
 
+	/**
+	 * Returns whether the tile changes how it looks over time.
+	 * @return True, animated tiles always change.
+	 */
+	public boolean isAnimated() {
+		return true;
+	}
+
 	/**
 	 * Ticks the tile to switch current animation state.
 	 */
@@ -27,6 +27,22 @@ public class BaseTile extends Tile {
 		this.tileColor = tileColor;
 	}
 
+	/**
+	 * Returns the tile from the sprite sheet currently used to render the tile.
+	 * @return The tile from the sprite sheet.
+	 */
+	public int getTileId() {
+		return tileId;
+	}
+
+	/**
+	 * Returns the color the tile is rendered with.
+	 * @return Color obtained from the Color.get(int, int, int, int) function.
+	 */
+	public int getTileColor() {
+		return tileColor;
+	}
+
 	/**
 	 * Ticks the tile.
 	 */
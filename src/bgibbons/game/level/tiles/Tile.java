@@ -64,6 +64,14 @@ public abstract class Tile {
 		return emitter;
 	}
 
+	/**
+	 * Returns whether the tile changes how it looks over time.
+	 * @return A boolean, true if the tile is animated, false otherwise.
+	 */
+	public boolean isAnimated() {
+		return false;
+	}
+
 	/** 
 	 * Returns the integer value of the color from the level resource to render the specific tile.
 	 * @return The integer value of the color from the level resource to render the specific tile.